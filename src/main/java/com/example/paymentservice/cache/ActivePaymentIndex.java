@@ -0,0 +1,169 @@
+package com.example.paymentservice.cache;
+
+import com.example.paymentservice.model.PaymentKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of active payments ordered by amount, then id, with a second map from id to amount
+ * for pages ordered by id. Amounts are in minor units, so an entry is a pair of primitive longs.
+ * <p>
+ * The index only answers queries once it has been {@linkplain #markReady() loaded}; until then
+ * callers are expected to go to the database. When disabled, updates are ignored and it never
+ * becomes ready.
+ */
+public class ActivePaymentIndex {
+
+    /**
+     * Approximate heap cost of one payment with compressed oops. In the amount set: the entry itself
+     * (32 bytes), its skip list node (24 bytes) and on average half an index node (12 bytes). In the
+     * id map: the boxed id and amount (16 bytes each), the node (24 bytes) and half an index node.
+     */
+    static final long ESTIMATED_BYTES_PER_ENTRY = 136;
+
+    private final boolean enabled;
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListMap<Long, Long> amountsById = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    public ActivePaymentIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * @return whether the index changed
+     */
+    public boolean add(long id, long amount) {
+        if (!enabled || !entries.add(new Entry(amount, id))) {
+            return false;
+        }
+        amountsById.put(id, amount);
+        return true;
+    }
+
+    /**
+     * @return whether the index changed
+     */
+    public boolean remove(long id, long amount) {
+        if (!enabled || !entries.remove(new Entry(amount, id))) {
+            return false;
+        }
+        amountsById.remove(id, amount);
+        return true;
+    }
+
+    /**
+     * Empties the index and takes it out of service until it is marked ready again.
+     */
+    public void clear() {
+        ready = false;
+        entries.clear();
+        amountsById.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long estimatedMemoryBytes() {
+        return size() * ESTIMATED_BYTES_PER_ENTRY;
+    }
+
+    /**
+     * Up to {@code limit} active payments within the amount range ordered by amount and id,
+     * starting after the {@code (afterAmount, afterId)} position when one is given.
+     */
+    public List<PaymentKey> findOrderByAmount(Long amountMin, Long amountMax,
+                                              Long afterAmount, Long afterId, int limit) {
+        NavigableSet<Entry> range = range(amountMin, amountMax);
+        if (afterAmount != null && !range.isEmpty()) {
+            range = range.tailSet(new Entry(afterAmount, afterId), false);
+        }
+        List<PaymentKey> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Entry entry : range) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry.toKey());
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} active payments within the amount range ordered by id, starting after
+     * {@code afterId} when one is given. Ids are walked in order and stop at the page size, so only
+     * payments outside the amount range are skipped over.
+     */
+    public List<PaymentKey> findOrderById(Long amountMin, Long amountMax, Long afterId, int limit) {
+        long min = amountMin == null ? Long.MIN_VALUE : amountMin;
+        long max = amountMax == null ? Long.MAX_VALUE : amountMax;
+        List<PaymentKey> result = new ArrayList<>(Math.min(limit, 1024));
+        if (min > max) {
+            return result;
+        }
+        Map<Long, Long> ids = afterId == null ? amountsById : amountsById.tailMap(afterId, false);
+        for (Map.Entry<Long, Long> entry : ids.entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            long amount = entry.getValue();
+            if (amount >= min && amount <= max) {
+                result.add(new PaymentKey(entry.getKey(), amount));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Point-in-time copy of the index as {@code {ids, amounts}}, sorted by id.
+     */
+    public long[][] snapshotById() {
+        List<Map.Entry<Long, Long>> copy = new ArrayList<>(amountsById.entrySet());
+        long[] ids = new long[copy.size()];
+        long[] amounts = new long[copy.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = copy.get(i).getKey();
+            amounts[i] = copy.get(i).getValue();
+        }
+        return new long[][]{ids, amounts};
+    }
+
+    private NavigableSet<Entry> range(Long amountMin, Long amountMax) {
+        long min = amountMin == null ? Long.MIN_VALUE : amountMin;
+        long max = amountMax == null ? Long.MAX_VALUE : amountMax;
+        if (min > max) {
+            return new ConcurrentSkipListSet<>();
+        }
+        return entries.subSet(new Entry(min, Long.MIN_VALUE), true, new Entry(max, Long.MAX_VALUE), true);
+    }
+
+    private record Entry(long amount, long id) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byAmount = Long.compare(amount, other.amount);
+            return byAmount != 0 ? byAmount : Long.compare(id, other.id);
+        }
+
+        PaymentKey toKey() {
+            return new PaymentKey(id, amount);
+        }
+    }
+}
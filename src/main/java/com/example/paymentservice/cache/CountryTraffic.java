@@ -0,0 +1,44 @@
+package com.example.paymentservice.cache;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of requests per client country since startup. Counting a request only increments the
+ * country's {@link LongAdder}, so concurrent requests never wait for each other.
+ */
+public class CountryTraffic {
+
+    public static final String UNKNOWN = "Unknown";
+
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    /**
+     * @param country the resolved country, or null if it could not be resolved
+     */
+    public void record(String country) {
+        String key = country == null ? UNKNOWN : country;
+        LongAdder counter = requests.get(key);
+        if (counter == null) {
+            counter = requests.computeIfAbsent(key, ignored -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * @return requests per country, most requests first
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        requests.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> snapshot.put(entry.getKey(), entry.getValue()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.paymentservice.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of an operation per idempotency key for a fixed time to live. Keys are
+ * spread over independently locked stripes so unrelated keys never contend for the same lock.
+ * Concurrent calls with the same key wait for the first one instead of running the operation again;
+ * failed operations, and results the caller chooses not to remember, are forgotten so that a retry can
+ * run them anew.
+ */
+public class IdempotencyStore<V> {
+
+    private final Stripe<V>[] stripes;
+    private final int maximumSizePerStripe;
+    private final long ttlNanos;
+    private final LongSupplier nanoTicker;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyStore(int stripeCount, int maximumSize, Duration ttl) {
+        this(stripeCount, maximumSize, ttl, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyStore(int stripeCount, int maximumSize, Duration ttl, LongSupplier nanoTicker) {
+        if (stripeCount < 1 || maximumSize < stripeCount) {
+            throw new IllegalArgumentException("Need at least one stripe and one entry per stripe");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.maximumSizePerStripe = maximumSize / stripeCount;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTicker = nanoTicker;
+    }
+
+    /**
+     * Returns the remembered result for {@code key}, waiting for it if the operation is still
+     * running, or runs {@code operation} and remembers its result.
+     */
+    public V execute(String key, Supplier<V> operation) {
+        return execute(key, operation, value -> true);
+    }
+
+    /**
+     * Like {@link #execute(String, Supplier)}, but a result for which {@code remember} is false is
+     * only handed to the calls already waiting for it and then forgotten.
+     */
+    public V execute(String key, Supplier<V> operation, Predicate<? super V> remember) {
+        Stripe<V> stripe = stripeFor(key);
+        CompletableFuture<V> result = new CompletableFuture<>();
+        CompletableFuture<V> existing;
+        stripe.lock.lock();
+        try {
+            long now = nanoTicker.getAsLong();
+            expire(stripe, now);
+            Entry<V> entry = stripe.entries.get(key);
+            existing = entry == null ? null : entry.result();
+            if (existing == null) {
+                stripe.entries.put(key, new Entry<>(result, now + ttlNanos));
+                evictOverflow(stripe);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (existing != null) {
+            replays.increment();
+            return join(existing);
+        }
+        try {
+            V value = operation.get();
+            if (!remember.test(value)) {
+                forget(stripe, key, result);
+            }
+            result.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            forget(stripe, key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long replayCount() {
+        return replays.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe<V> stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    /**
+     * Every entry lives for the same time, so insertion order is expiry order.
+     */
+    private void expire(Stripe<V> stripe, long now) {
+        Iterator<Entry<V>> oldestFirst = stripe.entries.values().iterator();
+        while (oldestFirst.hasNext()) {
+            if (now - oldestFirst.next().expiresAtNanos() < 0) {
+                return;
+            }
+            oldestFirst.remove();
+        }
+    }
+
+    private void evictOverflow(Stripe<V> stripe) {
+        Iterator<Entry<V>> oldestFirst = stripe.entries.values().iterator();
+        while (stripe.entries.size() > maximumSizePerStripe && oldestFirst.hasNext()) {
+            oldestFirst.next();
+            oldestFirst.remove();
+            evictions.increment();
+        }
+    }
+
+    private void forget(Stripe<V> stripe, String key, CompletableFuture<V> result) {
+        stripe.lock.lock();
+        try {
+            Entry<V> entry = stripe.entries.get(key);
+            if (entry != null && entry.result() == result) {
+                stripe.entries.remove(key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private V join(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Stripe<V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry<V>> entries = new LinkedHashMap<>();
+    }
+
+    private record Entry<V>(CompletableFuture<V> result, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.paymentservice.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded in-process cache with least-recently-used eviction and a time to live per entry.
+ * Concurrent loads of the same missing key are collapsed into a single call of the loader.
+ * An optional {@code replaces(current, candidate)} predicate decides whether a stored value may
+ * be overwritten, e.g. to keep a slow load of an old version from replacing a newer one.
+ */
+public class LruTtlCache<K, V> {
+
+    private final int maximumSize;
+    private final LongSupplier nanoTicker;
+    private final BiPredicate<V, V> replaces;
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruTtlCache(int maximumSize) {
+        this(maximumSize, System::nanoTime);
+    }
+
+    public LruTtlCache(int maximumSize, LongSupplier nanoTicker) {
+        this(maximumSize, nanoTicker, (current, candidate) -> true);
+    }
+
+    public LruTtlCache(int maximumSize, BiPredicate<V, V> replaces) {
+        this(maximumSize, System::nanoTime, replaces);
+    }
+
+    public LruTtlCache(int maximumSize, LongSupplier nanoTicker, BiPredicate<V, V> replaces) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.nanoTicker = nanoTicker;
+        this.replaces = replaces;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruTtlCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or loads it with {@code loader} and caches it for the duration
+     * returned by {@code ttl}. Threads asking for a key that is already being loaded wait for
+     * that load instead of starting their own.
+     */
+    public V get(K key, Function<K, V> loader, Function<V, Duration> ttl) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = peek(key);
+            if (value == null) {
+                V loaded = loader.apply(key);
+                value = store(key, loaded, ttl.apply(loaded));
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    public V getIfPresent(K key) {
+        V value = peek(key);
+        if (value != null) {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Stores {@code value} unless a live entry exists that the replacement predicate keeps.
+     */
+    public void put(K key, V value, Duration ttl) {
+        store(key, value, ttl);
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private V peek(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (nanoTicker.getAsLong() - entry.expiresAtNanos() >= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    private V store(K key, V value, Duration ttl) {
+        long now = nanoTicker.getAsLong();
+        synchronized (entries) {
+            Entry<V> current = entries.get(key);
+            if (current != null && now - current.expiresAtNanos() < 0 && !replaces.test(current.value(), value)) {
+                return current.value();
+            }
+            entries.put(key, new Entry<>(value, now + ttl.toNanos()));
+            return value;
+        }
+    }
+
+    private V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.paymentservice.cache;
+
+import com.example.paymentservice.model.PaymentTotals;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of payments per currency and type, kept in {@link LongAdder}s so that concurrent
+ * updates land on separate cells instead of contending for one counter. Reading all totals costs
+ * the same however many payments there are.
+ */
+public class PaymentStatistics {
+
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+    private static final PaymentType[] TYPES = PaymentType.values();
+
+    private final Counters[] counters = new Counters[CURRENCIES.length * TYPES.length];
+
+    public PaymentStatistics() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counters();
+        }
+    }
+
+    public void recordCreated(CurrencyType currency, PaymentType type, long amount) {
+        Counters c = countersFor(currency, type);
+        c.activeCount.increment();
+        c.activeAmount.add(amount);
+    }
+
+    public void recordCanceled(CurrencyType currency, PaymentType type, long amount, long fee) {
+        Counters c = countersFor(currency, type);
+        c.activeCount.decrement();
+        c.activeAmount.add(-amount);
+        c.canceledCount.increment();
+        c.cancellationFees.add(fee);
+    }
+
+    /**
+     * Adds {@code delta} to the totals of its currency and type, e.g. to seed or correct them.
+     */
+    public void add(PaymentTotals delta) {
+        Counters c = countersFor(delta.currency(), delta.type());
+        c.activeCount.add(delta.activeCount());
+        c.activeAmount.add(delta.activeAmount());
+        c.canceledCount.add(delta.canceledCount());
+        c.cancellationFees.add(delta.cancellationFees());
+    }
+
+    /**
+     * Totals of every currency and type, including those without payments. Updates that happen
+     * while the totals are read may be partly included.
+     */
+    public List<PaymentTotals> snapshot() {
+        List<PaymentTotals> totals = new ArrayList<>(counters.length);
+        for (CurrencyType currency : CURRENCIES) {
+            for (PaymentType type : TYPES) {
+                Counters c = countersFor(currency, type);
+                totals.add(new PaymentTotals(currency, type, c.activeCount.sum(), c.activeAmount.sum(),
+                        c.canceledCount.sum(), c.cancellationFees.sum()));
+            }
+        }
+        return totals;
+    }
+
+    private Counters countersFor(CurrencyType currency, PaymentType type) {
+        return counters[currency.ordinal() * TYPES.length + type.ordinal()];
+    }
+
+    private static final class Counters {
+        private final LongAdder activeCount = new LongAdder();
+        private final LongAdder activeAmount = new LongAdder();
+        private final LongAdder canceledCount = new LongAdder();
+        private final LongAdder cancellationFees = new LongAdder();
+    }
+}
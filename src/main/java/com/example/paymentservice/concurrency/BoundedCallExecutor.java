@@ -0,0 +1,41 @@
+package com.example.paymentservice.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking calls on a fixed number of threads with a bounded queue, so a request thread can be
+ * released while the call waits for the database. Calls that do not finish within the timeout,
+ * measured from submission, complete exceptionally with a
+ * {@link java.util.concurrent.TimeoutException}; the call itself keeps running, because a JDBC
+ * round trip cannot be interrupted safely.
+ *
+ * <p>Deliberately not an {@link java.util.concurrent.Executor}, so it is never picked up as the
+ * application's default task executor.
+ */
+public class BoundedCallExecutor {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public BoundedCallExecutor(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.paymentservice.concurrency;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds a permit of the database limiter for as long as a connection is checked out, so the
+ * number of threads working against the database stays bounded no matter how many requests are
+ * in flight.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedDataSource(DataSource target, ConcurrencyLimiter limiter) {
+        super(target);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private void acquire() throws SQLTransientConnectionException {
+        if (!limiter.tryAcquire()) {
+            throw new SQLTransientConnectionException("No database permit available within "
+                    + limiter.getAcquireTimeout().toMillis() + " ms");
+        }
+    }
+
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                limiter.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.paymentservice.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of callers using a shared resource at the same time. Callers that cannot get a
+ * permit within the acquire timeout are rejected instead of queueing without bound, which matters
+ * once request handling runs on virtual threads and the servlet thread pool no longer limits
+ * concurrency.
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration acquireTimeout) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Waits up to the acquire timeout for a permit. Every successful call must be paired with
+     * exactly one {@link #release()}.
+     *
+     * @return false if no permit became available in time or the thread was interrupted
+     */
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.paymentservice.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the request rate of every client separately with a token bucket per client: a bucket holds
+ * up to {@code capacity} tokens, is refilled continuously at {@code refillPerSecond} and every
+ * request takes one token. Buckets are spread over independently locked stripes, and each stripe
+ * keeps at most its share of {@code maximumClients}, evicting the least recently seen client. An
+ * evicted client starts again with a full bucket.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final double capacity;
+    private final double nanosPerToken;
+    private final Stripe[] stripes;
+    private final LongSupplier nanoTicker;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketRateLimiter(String name, int capacity, double refillPerSecond,
+                                  int stripeCount, int maximumClients) {
+        this(name, capacity, refillPerSecond, stripeCount, maximumClients, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(String name, int capacity, double refillPerSecond,
+                                  int stripeCount, int maximumClients, LongSupplier nanoTicker) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a capacity and a refill rate");
+        }
+        if (stripeCount < 1 || maximumClients < stripeCount) {
+            throw new IllegalArgumentException("Need at least one stripe and one client per stripe");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.nanosPerToken = 1_000_000_000d / refillPerSecond;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maximumClients / stripeCount);
+        }
+        this.nanoTicker = nanoTicker;
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String client) {
+        Stripe stripe = stripeFor(client);
+        long now = nanoTicker.getAsLong();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(client);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(client, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAtNanos) / nanosPerToken);
+                bucket.refilledAtNanos = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            rejected.increment();
+            return (long) Math.ceil((1 - bucket.tokens) * nanosPerToken);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int clientCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe stripeFor(String client) {
+        int hash = client.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int maximumSize) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAtNanos;
+
+        private Bucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.ActivePaymentIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ActivePaymentIndexConfig {
+
+    @Bean
+    public ActivePaymentIndex activePaymentIndex(@Value("${payment.active-index.enabled}") boolean enabled) {
+        return new ActivePaymentIndex(enabled);
+    }
+
+    @Bean
+    public MeterBinder activePaymentIndexMetrics(ActivePaymentIndex activePaymentIndex) {
+        return registry -> {
+            Gauge.builder("payment.index.size", activePaymentIndex, ActivePaymentIndex::size)
+                    .register(registry);
+            Gauge.builder("payment.index.memory", activePaymentIndex, ActivePaymentIndex::estimatedMemoryBytes)
+                    .description("Estimated heap used by the active payment index")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+            Gauge.builder("payment.index.ready", activePaymentIndex, index -> index.isReady() ? 1 : 0)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.concurrency.BoundedCallExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(name = "payment.async.enabled", havingValue = "true")
+public class AsyncPaymentConfig {
+
+    /**
+     * One thread per pooled connection: more threads would only wait for a connection, fewer would
+     * leave connections idle. Calls beyond the queue capacity are rejected rather than queued.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedCallExecutor paymentDatabaseExecutor(
+            @Value("${payment.async.database-threads}") int threads,
+            @Value("${payment.async.queue-capacity}") int queueCapacity,
+            @Value("${payment.async.timeout}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        Counter rejected = meterRegistry.counter("payment.async.rejected");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("payment-db-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Payment database executor queue is full");
+                });
+        return new BoundedCallExecutor(
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, "payment.database"), timeout);
+    }
+}
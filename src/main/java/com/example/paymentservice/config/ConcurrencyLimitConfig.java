@@ -0,0 +1,71 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.concurrency.ConcurrencyLimitedDataSource;
+import com.example.paymentservice.concurrency.ConcurrencyLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * With platform threads the Tomcat thread pool and Hikari's own pool already bound database
+     * concurrency, so connections are only guarded when requests run on virtual threads.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public ConcurrencyLimiter databaseConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return limiter("database", properties.database());
+    }
+
+    @Bean
+    public ConcurrencyLimiter outboundHttpConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return limiter("outbound-http", properties.outboundHttp());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the auto-configured primary pool
+                if (bean instanceof HikariDataSource dataSource && "dataSource".equals(beanName)) {
+                    return new ConcurrencyLimitedDataSource(dataSource,
+                            beanFactory.getBean("databaseConcurrencyLimiter", ConcurrencyLimiter.class));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(List<ConcurrencyLimiter> limiters) {
+        return registry -> limiters.forEach(limiter -> {
+            Gauge.builder("concurrency.limit.in.use", limiter, ConcurrencyLimiter::inUse)
+                    .tag("resource", limiter.getName())
+                    .register(registry);
+            Gauge.builder("concurrency.limit.waiting", limiter, ConcurrencyLimiter::waiting)
+                    .tag("resource", limiter.getName())
+                    .register(registry);
+            FunctionCounter.builder("concurrency.limit.rejected", limiter, ConcurrencyLimiter::rejectedCount)
+                    .tag("resource", limiter.getName())
+                    .register(registry);
+        });
+    }
+
+    private static ConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Limit limit) {
+        return new ConcurrencyLimiter(name, limit.maxConcurrent(), limit.acquireTimeout());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.paymentservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Maximum number of concurrent users of the database and of outbound HTTP, and how long a caller
+ * may wait for a permit before it is rejected.
+ */
+@ConfigurationProperties(prefix = "concurrency.limits")
+public record ConcurrencyLimitProperties(Limit database, Limit outboundHttp) {
+
+    public record Limit(int maxConcurrent, Duration acquireTimeout) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.LruTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+@ConditionalOnProperty(name = "country.resolver.type", havingValue = "ipapi", matchIfMissing = true)
+public class CountryCacheConfig {
+
+    @Bean
+    public LruTtlCache<String, Optional<String>> countryCache(
+            @Value("${country.cache.maximum-size}") int maximumSize) {
+        return new LruTtlCache<>(maximumSize);
+    }
+
+    @Bean
+    public MeterBinder countryCacheMetrics(LruTtlCache<String, Optional<String>> countryCache) {
+        return registry -> {
+            FunctionCounter.builder("country.cache.hits", countryCache, LruTtlCache::hitCount)
+                    .register(registry);
+            FunctionCounter.builder("country.cache.misses", countryCache, LruTtlCache::missCount)
+                    .register(registry);
+            FunctionCounter.builder("country.cache.evictions", countryCache, LruTtlCache::evictionCount)
+                    .register(registry);
+            Gauge.builder("country.cache.size", countryCache, LruTtlCache::size)
+                    .register(registry);
+        };
+    }
+}
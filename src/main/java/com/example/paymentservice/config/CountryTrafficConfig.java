@@ -0,0 +1,14 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CountryTrafficConfig {
+
+    @Bean
+    public CountryTraffic countryTraffic() {
+        return new CountryTraffic();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.IdempotencyStore;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.validation.Validated;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore<Validated<IdempotentPayment>> paymentIdempotencyStore(
+            @Value("${payment.idempotency.stripes}") int stripes,
+            @Value("${payment.idempotency.maximum-size}") int maximumSize,
+            @Value("${payment.idempotency.ttl}") Duration ttl) {
+        return new IdempotencyStore<>(stripes, maximumSize, ttl);
+    }
+
+    @Bean
+    public MeterBinder paymentIdempotencyMetrics(IdempotencyStore<Validated<IdempotentPayment>> paymentIdempotencyStore) {
+        return registry -> {
+            FunctionCounter.builder("payment.idempotency.replays", paymentIdempotencyStore,
+                            IdempotencyStore::replayCount)
+                    .register(registry);
+            FunctionCounter.builder("payment.idempotency.evictions", paymentIdempotencyStore,
+                            IdempotencyStore::evictionCount)
+                    .register(registry);
+            Gauge.builder("payment.idempotency.size", paymentIdempotencyStore, IdempotencyStore::size)
+                    .register(registry);
+        };
+    }
+}
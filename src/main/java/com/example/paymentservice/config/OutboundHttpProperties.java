@@ -0,0 +1,36 @@
+package com.example.paymentservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of the pooled HTTP client used for all outbound calls. Entries under {@code destinations}
+ * override pool size and timeouts for the host of their {@code url}.
+ */
+@ConfigurationProperties(prefix = "outbound.http")
+public record OutboundHttpProperties(
+        Duration connectTimeout,
+        Duration readTimeout,
+        Duration connectionRequestTimeout,
+        Duration keepAlive,
+        int maxConnectionsTotal,
+        int maxConnectionsPerRoute,
+        Retry retry,
+        CircuitBreaker circuitBreaker,
+        Map<String, Destination> destinations) {
+
+    public OutboundHttpProperties {
+        destinations = destinations == null ? Map.of() : destinations;
+    }
+
+    public record Retry(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+    }
+
+    public record CircuitBreaker(int failureThreshold, Duration openDuration) {
+    }
+
+    public record Destination(String url, Integer maxConnections, Duration connectTimeout, Duration readTimeout) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.LruTtlCache;
+import com.example.paymentservice.model.PaymentSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaymentCacheConfig {
+
+    @Bean
+    public LruTtlCache<Long, PaymentSummary> paymentCache(
+            @Value("${payment.cache.maximum-size}") int maximumSize) {
+        return new LruTtlCache<>(maximumSize, (current, candidate) -> candidate.isNewerOrSameAs(current));
+    }
+
+    @Bean
+    public MeterBinder paymentCacheMetrics(LruTtlCache<Long, PaymentSummary> paymentCache) {
+        return registry -> {
+            FunctionCounter.builder("payment.cache.hits", paymentCache, LruTtlCache::hitCount)
+                    .register(registry);
+            FunctionCounter.builder("payment.cache.misses", paymentCache, LruTtlCache::missCount)
+                    .register(registry);
+            FunctionCounter.builder("payment.cache.evictions", paymentCache, LruTtlCache::evictionCount)
+                    .register(registry);
+            Gauge.builder("payment.cache.size", paymentCache, LruTtlCache::size)
+                    .register(registry);
+        };
+    }
+}
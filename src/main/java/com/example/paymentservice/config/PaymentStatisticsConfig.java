@@ -0,0 +1,14 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.cache.PaymentStatistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaymentStatisticsConfig {
+
+    @Bean
+    public PaymentStatistics paymentStatistics() {
+        return new PaymentStatistics();
+    }
+}
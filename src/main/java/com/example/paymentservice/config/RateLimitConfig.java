@@ -0,0 +1,50 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.concurrency.TokenBucketRateLimiter;
+import com.example.paymentservice.interceptor.RateLimitInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(RateLimitProperties properties) {
+        Map<String, RateLimitProperties.Endpoint> endpoints = properties.endpoints() == null
+                ? Map.of()
+                : properties.endpoints();
+        List<RateLimitInterceptor.Limit> limits = endpoints.entrySet().stream()
+                .map(endpoint -> new RateLimitInterceptor.Limit(endpoint.getValue().method(),
+                        endpoint.getValue().pattern(),
+                        new TokenBucketRateLimiter(endpoint.getKey(), endpoint.getValue().capacity(),
+                                endpoint.getValue().refillPerSecond(), properties.stripes(),
+                                properties.maximumClients())))
+                .toList();
+        return new RateLimitInterceptor(limits);
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitInterceptor rateLimitInterceptor) {
+        return registry -> rateLimitInterceptor.getLimiters().forEach(limiter -> {
+            FunctionCounter.builder("rate.limit.rejected", limiter, TokenBucketRateLimiter::rejectedCount)
+                    .tag("endpoint", limiter.getName())
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.evictions", limiter, TokenBucketRateLimiter::evictionCount)
+                    .tag("endpoint", limiter.getName())
+                    .register(registry);
+            Gauge.builder("rate.limit.clients", limiter, TokenBucketRateLimiter::clientCount)
+                    .tag("endpoint", limiter.getName())
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.paymentservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Per-client request rate limits, keyed by a name for the endpoint. {@code pattern} is the request
+ * mapping of the endpoint as declared on the controller, e.g. {@code /payments/{id}}.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(int stripes, int maximumClients, Map<String, Endpoint> endpoints) {
+
+    public record Endpoint(String method, String pattern, int capacity, double refillPerSecond) {
+    }
+}
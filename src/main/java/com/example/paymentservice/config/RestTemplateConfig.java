@@ -1,14 +1,110 @@
 package com.example.paymentservice.config;
 
+import com.example.paymentservice.concurrency.ConcurrencyLimiter;
+import com.example.paymentservice.http.ConcurrencyLimitingHttpRequestInterceptor;
+import com.example.paymentservice.http.ResilientHttpRequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
 public class RestTemplateConfig {
 
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(OutboundHttpProperties properties) {
+        Map<String, OutboundHttpProperties.Destination> destinationsByHost = new HashMap<>();
+        properties.destinations().values()
+                .forEach(destination -> destinationsByHost.put(URI.create(destination.url()).getHost(), destination));
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnectionsTotal())
+                .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+                .setConnectionConfigResolver(route ->
+                        connectionConfig(properties, destinationsByHost.get(route.getTargetHost().getHostName())))
+                .build();
+        properties.destinations().values().stream()
+                .filter(destination -> destination.maxConnections() != null)
+                .forEach(destination ->
+                        connectionManager.setMaxPerRoute(route(destination.url()), destination.maxConnections()));
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                                  OutboundHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(properties.connectionRequestTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(properties.keepAlive()))
+                .evictIdleConnections(TimeValue.of(properties.keepAlive()))
+                // Retries are handled by ResilientHttpRequestInterceptor
+                .disableAutomaticRetries()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+                                     OutboundHttpProperties properties, MeterRegistry meterRegistry,
+                                     ConcurrencyLimiter outboundHttpConcurrencyLimiter) {
+        // Every attempt takes its own permit, so backoff sleeps between attempts do not hold one
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(outboundHttpClient))
+                .additionalInterceptors(new ResilientHttpRequestInterceptor(properties, meterRegistry,
+                        new ConcurrencyLimitingHttpRequestInterceptor(outboundHttpConcurrencyLimiter)))
+                .build();
+    }
+
+    @Bean
+    public MeterBinder outboundConnectionPoolMetrics(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(outboundConnectionManager, "outbound");
+    }
+
+    private static ConnectionConfig connectionConfig(OutboundHttpProperties properties,
+                                                     OutboundHttpProperties.Destination destination) {
+        Duration connectTimeout = destination != null && destination.connectTimeout() != null
+                ? destination.connectTimeout() : properties.connectTimeout();
+        Duration readTimeout = destination != null && destination.readTimeout() != null
+                ? destination.readTimeout() : properties.readTimeout();
+        return ConnectionConfig.custom()
+                .setConnectTimeout(timeout(connectTimeout))
+                .setSocketTimeout(timeout(readTimeout))
+                .setTimeToLive(TimeValue.of(properties.keepAlive()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    private static HttpRoute route(String url) {
+        URI uri = URI.create(url);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.of(duration);
     }
-}
\ No newline at end of file
+}
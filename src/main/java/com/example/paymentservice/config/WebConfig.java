@@ -1,7 +1,9 @@
 package com.example.paymentservice.config;
 
-import com.example.paymentservice.interceptor.CountryLoggingInterceptor;
+import com.example.paymentservice.interceptor.CountryTrafficInterceptor;
+import com.example.paymentservice.interceptor.RateLimitInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -10,11 +12,23 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     @Autowired
-    private CountryLoggingInterceptor countryLoggingInterceptor;
+    private CountryTrafficInterceptor countryTrafficInterceptor;
+
+    @Autowired(required = false)
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Value("${country.traffic.excluded-paths}")
+    private String[] countryTrafficExcludedPaths;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(countryLoggingInterceptor)
-                .addPathPatterns("/**");
+        // Rejected requests should not cost a country lookup
+        if (rateLimitInterceptor != null) {
+            registry.addInterceptor(rateLimitInterceptor)
+                    .addPathPatterns("/**");
+        }
+        registry.addInterceptor(countryTrafficInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns(countryTrafficExcludedPaths);
     }
-}
\ No newline at end of file
+}
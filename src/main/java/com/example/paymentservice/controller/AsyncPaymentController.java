@@ -0,0 +1,145 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.concurrency.BoundedCallExecutor;
+import com.example.paymentservice.dto.CreatePaymentRequestDto;
+import com.example.paymentservice.dto.PaymentResponseDto;
+import com.example.paymentservice.dto.PaymentStatsDto;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.handler.GlobalExceptionHandler;
+import com.example.paymentservice.mapper.PaymentMapper;
+import com.example.paymentservice.model.PaymentBatchItem;
+import com.example.paymentservice.model.PaymentPage;
+import com.example.paymentservice.service.IdempotentPaymentService;
+import com.example.paymentservice.service.PaymentService;
+import com.example.paymentservice.types.PaymentSortType;
+import com.example.paymentservice.validation.PaymentValidator;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.paymentservice.controller.PaymentController.IDEMPOTENCY_KEY_HEADER;
+import static com.example.paymentservice.controller.PaymentController.MISSING_BATCH_ITEM;
+import static com.example.paymentservice.controller.PaymentController.NEXT_CURSOR_HEADER;
+
+/**
+ * Same API as {@link PaymentController}, but service calls run on the bounded database executor and
+ * the servlet thread is released while they wait for the database. Request parsing and validation
+ * still happen on the servlet thread; the statistics are served from memory and stay synchronous.
+ */
+@RestController
+@RequestMapping("/payments")
+@ConditionalOnProperty(name = "payment.async.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AsyncPaymentController {
+
+    private final PaymentService service;
+    private final IdempotentPaymentService idempotentService;
+    private final PaymentMapper mapper;
+    private final Validator validator;
+    private final PaymentValidator paymentValidator;
+    private final BoundedCallExecutor paymentDatabaseExecutor;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<?>> createPayment(
+            @RequestBody @Valid CreatePaymentRequestDto request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Payment payment = mapper.toEntity(request);
+        return paymentDatabaseExecutor.<ResponseEntity<?>>submit(() -> {
+            Validated<Long> created = idempotencyKey == null
+                    ? service.createPayment(payment)
+                    : idempotentService.createPayment(idempotencyKey, payment);
+            if (!created.isValid()) {
+                return GlobalExceptionHandler.unprocessableEntity(created.validation().getMessages());
+            }
+            return ResponseEntity.created(URI.create("/payments/" + created.value()))
+                    .body(PaymentResponseDto.builder().id(created.value()).build());
+        });
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> createPayments(@RequestBody List<CreatePaymentRequestDto> requests) {
+        ValidationResult size = paymentValidator.validateBatchSize(requests.size());
+        if (!size.isValid()) {
+            return CompletableFuture.completedFuture(GlobalExceptionHandler.unprocessableEntity(size.getMessages()));
+        }
+        List<PaymentBatchItem> items = requests.stream().map(this::batchItem).toList();
+        return paymentDatabaseExecutor.<ResponseEntity<?>>submit(() -> {
+            service.createPayments(items);
+            return ResponseEntity.ok(mapper.toBatchResultDtoList(items));
+        });
+    }
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<?>> getAllActivePayments(
+            @RequestParam(required = false) BigDecimal amountMin,
+            @RequestParam(required = false) BigDecimal amountMax,
+            @RequestParam(defaultValue = "ID") PaymentSortType sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return paymentDatabaseExecutor.<ResponseEntity<?>>submit(() -> {
+            Validated<PaymentPage> result = service.getFilteredPayments(amountMin, amountMax, sort, after, limit);
+            if (!result.isValid()) {
+                return GlobalExceptionHandler.unprocessableEntity(result.validation().getMessages());
+            }
+            PaymentPage page = result.value();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(mapper.toDtoListIdOnly(page.payments()));
+        });
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<PaymentStatsDto>> getStatistics() {
+        return ResponseEntity.ok(mapper.toStatsDtoList(service.getStatistics()));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public CompletableFuture<ResponseEntity<?>> cancelPayment(@PathVariable Long id) {
+        return paymentDatabaseExecutor.<ResponseEntity<?>>submit(() -> {
+            Validated<Payment> canceled = service.cancelPayment(id);
+            if (!canceled.isValid()) {
+                return GlobalExceptionHandler.unprocessableEntity(canceled.validation().getMessages());
+            }
+            return ResponseEntity.ok(mapper.toDto(canceled.value()));
+        });
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<PaymentResponseDto>> getPaymentById(@PathVariable Long id) {
+        return paymentDatabaseExecutor.submit(() -> ResponseEntity.ok(mapper.toDto(service.getPaymentSummary(id))));
+    }
+
+    private PaymentBatchItem batchItem(CreatePaymentRequestDto request) {
+        if (request == null) {
+            return new PaymentBatchItem(null, new ArrayList<>(List.of(MISSING_BATCH_ITEM)));
+        }
+        return new PaymentBatchItem(mapper.toEntity(request), constraintViolations(request));
+    }
+
+    private List<String> constraintViolations(CreatePaymentRequestDto request) {
+        return new ArrayList<>(validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .toList());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import com.example.paymentservice.dto.CountryTrafficDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CountryTrafficController {
+
+    private final CountryTraffic countryTraffic;
+
+    @GetMapping("/traffic/countries")
+    public ResponseEntity<List<CountryTrafficDto>> getCountryTraffic() {
+        return ResponseEntity.ok(countryTraffic.snapshot().entrySet().stream()
+                .map(entry -> CountryTrafficDto.builder()
+                        .country(entry.getKey())
+                        .requests(entry.getValue())
+                        .build())
+                .toList());
+    }
+}
@@ -2,56 +2,137 @@ package com.example.paymentservice.controller;
 
 import com.example.paymentservice.dto.CreatePaymentRequestDto;
 import com.example.paymentservice.dto.PaymentResponseDto;
+import com.example.paymentservice.dto.PaymentStatsDto;
 import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.handler.GlobalExceptionHandler;
 import com.example.paymentservice.mapper.PaymentMapper;
+import com.example.paymentservice.model.PaymentBatchItem;
+import com.example.paymentservice.model.PaymentPage;
+import com.example.paymentservice.service.IdempotentPaymentService;
 import com.example.paymentservice.service.PaymentService;
+import com.example.paymentservice.types.PaymentSortType;
+import com.example.paymentservice.validation.PaymentValidator;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationResult;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Handles payment requests on the servlet thread. Replaced by {@link AsyncPaymentController} when
+ * {@code payment.async.enabled=true}.
+ */
 @RestController
 @RequestMapping("/payments")
+@ConditionalOnProperty(name = "payment.async.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class PaymentController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String MISSING_BATCH_ITEM = "Payment is a required field";
+
     private final PaymentService service;
+    private final IdempotentPaymentService idempotentService;
     private final PaymentMapper mapper;
+    private final Validator validator;
+    private final PaymentValidator paymentValidator;
 
     @PostMapping
-    public ResponseEntity<PaymentResponseDto> createPayment(@RequestBody @Valid CreatePaymentRequestDto request) {
-        Long paymentId = service.createPayment(mapper.toEntity(request));
+    public ResponseEntity<?> createPayment(
+            @RequestBody @Valid CreatePaymentRequestDto request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Payment payment = mapper.toEntity(request);
+        Validated<Long> created = idempotencyKey == null
+                ? service.createPayment(payment)
+                : idempotentService.createPayment(idempotencyKey, payment);
+        if (!created.isValid()) {
+            return GlobalExceptionHandler.unprocessableEntity(created.validation().getMessages());
+        }
+        Long paymentId = created.value();
         URI location = URI.create("/payments/" + paymentId);
         return ResponseEntity.created(location).body(PaymentResponseDto.builder().id(paymentId).build());
     }
 
+    /**
+     * The batch size is checked before any item is validated or mapped, so an oversized batch costs
+     * no more than its parsing.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createPayments(@RequestBody List<CreatePaymentRequestDto> requests) {
+        ValidationResult size = paymentValidator.validateBatchSize(requests.size());
+        if (!size.isValid()) {
+            return GlobalExceptionHandler.unprocessableEntity(size.getMessages());
+        }
+        List<PaymentBatchItem> items = requests.stream().map(this::batchItem).toList();
+        service.createPayments(items);
+        return ResponseEntity.ok(mapper.toBatchResultDtoList(items));
+    }
+
     @GetMapping
-    public ResponseEntity<List<PaymentResponseDto>> getAllActivePayments(
+    public ResponseEntity<?> getAllActivePayments(
             @RequestParam(required = false) BigDecimal amountMin,
-            @RequestParam(required = false) BigDecimal amountMax) {
-        List<Payment> payments = service.getFilteredPayments(amountMin, amountMax);
-        return ResponseEntity.ok(mapper.toDtoListIdOnly(payments));
+            @RequestParam(required = false) BigDecimal amountMax,
+            @RequestParam(defaultValue = "ID") PaymentSortType sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        Validated<PaymentPage> result = service.getFilteredPayments(amountMin, amountMax, sort, after, limit);
+        if (!result.isValid()) {
+            return GlobalExceptionHandler.unprocessableEntity(result.validation().getMessages());
+        }
+        PaymentPage page = result.value();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(mapper.toDtoListIdOnly(page.payments()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<PaymentStatsDto>> getStatistics() {
+        return ResponseEntity.ok(mapper.toStatsDtoList(service.getStatistics()));
     }
 
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<PaymentResponseDto> cancelPayment(@PathVariable Long id) {
-        Payment payment = service.cancelPayment(id);
-        return ResponseEntity.ok(mapper.toDto(payment));
+    public ResponseEntity<?> cancelPayment(@PathVariable Long id) {
+        Validated<Payment> canceled = service.cancelPayment(id);
+        if (!canceled.isValid()) {
+            return GlobalExceptionHandler.unprocessableEntity(canceled.validation().getMessages());
+        }
+        return ResponseEntity.ok(mapper.toDto(canceled.value()));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PaymentResponseDto> getPaymentById(@PathVariable Long id) {
-        Payment payment = service.getPayment(id);
-        return ResponseEntity.ok(mapper.toDto(payment));
+        return ResponseEntity.ok(mapper.toDto(service.getPaymentSummary(id)));
+    }
+
+    private PaymentBatchItem batchItem(CreatePaymentRequestDto request) {
+        if (request == null) {
+            return new PaymentBatchItem(null, new ArrayList<>(List.of(MISSING_BATCH_ITEM)));
+        }
+        return new PaymentBatchItem(mapper.toEntity(request), constraintViolations(request));
+    }
+
+    private List<String> constraintViolations(CreatePaymentRequestDto request) {
+        return new ArrayList<>(validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .toList());
     }
 }
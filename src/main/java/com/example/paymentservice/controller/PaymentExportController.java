@@ -0,0 +1,76 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.dto.ErrorResponseDto;
+import com.example.paymentservice.dto.PaymentExportDto;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.mapper.PaymentMapper;
+import com.example.paymentservice.service.PaymentService;
+import com.example.paymentservice.validation.ValidationResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * Streams the export straight to the servlet response, so it is served on the servlet thread in
+ * both the synchronous and the asynchronous mode.
+ */
+@RestController
+@RequestMapping("/payments")
+@RequiredArgsConstructor
+public class PaymentExportController {
+
+    private final PaymentService service;
+    private final PaymentMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/export")
+    public void exportActivePayments(
+            @RequestParam(required = false) BigDecimal amountMin,
+            @RequestParam(required = false) BigDecimal amountMax,
+            HttpServletResponse response) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PaymentExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Nothing may be flushed before the service has validated the query,
+        // otherwise the error response could no longer be written
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        ValidationResult validation = service.exportFilteredPayments(amountMin, amountMax,
+                payment -> writeLine(response, generator, writer, payment));
+        if (!validation.isValid()) {
+            response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(generator,
+                    ErrorResponseDto.builder().errors(validation.getMessages()).build());
+        } else {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+        generator.close();
+    }
+
+    private void writeLine(HttpServletResponse response, JsonGenerator generator, ObjectWriter writer,
+                           Payment payment) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+        try {
+            writer.writeValue(generator, mapper.toExportDto(payment));
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
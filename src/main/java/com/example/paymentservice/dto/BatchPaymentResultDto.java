@@ -0,0 +1,16 @@
+package com.example.paymentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPaymentResultDto {
+    private Integer index;
+    private Long id;
+    private List<String> errors;
+}
@@ -0,0 +1,11 @@
+package com.example.paymentservice.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CountryTrafficDto {
+    private String country;
+    private long requests;
+}
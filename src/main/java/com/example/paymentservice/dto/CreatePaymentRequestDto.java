@@ -2,6 +2,7 @@ package com.example.paymentservice.dto;
 
 import com.example.paymentservice.types.CurrencyType;
 import com.example.paymentservice.types.PaymentType;
+import com.example.paymentservice.validation.MonetaryAmount;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 public class CreatePaymentRequestDto {
     @Min(value = 0, message = "Monetary value can not be negative")
     @NotNull(message = "Amount is a required field")
+    @MonetaryAmount
     private BigDecimal amount;
 
     @NotNull(message = "Currency is a required field")
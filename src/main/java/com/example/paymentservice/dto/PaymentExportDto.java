@@ -0,0 +1,25 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentExportDto {
+    private Long id;
+    private LocalDateTime createdAt;
+    private BigDecimal amount;
+    private CurrencyType currency;
+    private String debtorIban;
+    private String creditorIban;
+    private PaymentType type;
+    private String details;
+    private String creditorBankBic;
+}
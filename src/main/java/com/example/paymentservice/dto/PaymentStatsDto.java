@@ -0,0 +1,19 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class PaymentStatsDto {
+    private CurrencyType currency;
+    private PaymentType type;
+    private long activeCount;
+    private BigDecimal activeAmount;
+    private long canceledCount;
+    private BigDecimal cancellationFees;
+}
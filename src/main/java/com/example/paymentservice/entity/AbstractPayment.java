@@ -0,0 +1,78 @@
+package com.example.paymentservice.entity;
+
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import jakarta.persistence.Column;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columns shared by today's {@link Payment}s and {@link ArchivedPayment}s of earlier days.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+public abstract class AbstractPayment {
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * In minor units of {@link #currency}, see {@link Money}.
+     */
+    @Column(name = "AMOUNT", nullable = false)
+    private Long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "CURRENCY", nullable = false)
+    private CurrencyType currency;
+
+    @Column(name = "DEBTOR_IBAN", nullable = false)
+    private String debtorIban;
+
+    @Column(name = "CREDITOR_IBAN", nullable = false)
+    private String creditorIban;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TYPE", nullable = false)
+    private PaymentType type;
+
+    @Column(name = "DETAILS")
+    private String details;
+
+    @Column(name = "CREDITOR_BANK_BIC")
+    private String creditorBankBic;
+
+    @Column(name = "IS_CANCELED", nullable = false)
+    private Boolean isCanceled;
+
+    @Column(name = "CANCELLATION_FEE")
+    private BigDecimal cancellationFee;
+
+    @Column(name = "IDEMPOTENCY_KEY", unique = true)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the request that created the payment, set only together with {@link #idempotencyKey}.
+     */
+    @Column(name = "REQUEST_HASH", length = 64)
+    private String requestHash;
+
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
+    public abstract Long getId();
+}
@@ -0,0 +1,50 @@
+package com.example.paymentservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A payment created before today. It can no longer be canceled, so rows are only ever inserted by
+ * {@link com.example.paymentservice.service.PaymentArchiver} and keep the id they had in
+ * {@link Payment}.
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@Table(name = "PAYMENTS_ARCHIVE",
+        indexes = @Index(name = "IDX_PAYMENTS_ARCHIVE_ACTIVE_AMOUNT", columnList = "IS_CANCELED, AMOUNT, ID"))
+public class ArchivedPayment extends AbstractPayment {
+    @Id
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    public Payment toPayment() {
+        return Payment.builder()
+                .id(id)
+                .createdAt(getCreatedAt())
+                .amount(getAmount())
+                .currency(getCurrency())
+                .debtorIban(getDebtorIban())
+                .creditorIban(getCreditorIban())
+                .type(getType())
+                .details(getDetails())
+                .creditorBankBic(getCreditorBankBic())
+                .isCanceled(getIsCanceled())
+                .cancellationFee(getCancellationFee())
+                .idempotencyKey(getIdempotencyKey())
+                .requestHash(getRequestHash())
+                .version(getVersion())
+                .build();
+    }
+}
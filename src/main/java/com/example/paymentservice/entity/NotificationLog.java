@@ -3,7 +3,9 @@ package com.example.paymentservice.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +13,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Getter
 @Setter
@@ -21,7 +25,8 @@ import lombok.Setter;
 public class NotificationLog {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_logs_seq")
+    @SequenceGenerator(name = "notification_logs_seq", sequenceName = "NOTIFICATION_LOGS_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     private Long id;
 
@@ -33,4 +38,10 @@ public class NotificationLog {
 
     @Column(name = "SUCCESS", nullable = false)
     private boolean success;
+
+    @Column(name = "ATTEMPT")
+    private Integer attempt;
+
+    @Column(name = "CREATED_AT")
+    private LocalDateTime createdAt;
 }
\ No newline at end of file
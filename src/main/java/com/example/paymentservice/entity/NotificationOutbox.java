@@ -0,0 +1,68 @@
+package com.example.paymentservice.entity;
+
+import com.example.paymentservice.types.OutboxStatus;
+import com.example.paymentservice.types.PaymentType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending notification written in the same transaction as its payment and delivered later by
+ * {@link com.example.paymentservice.service.NotificationDispatcher}.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "NOTIFICATION_OUTBOX",
+        indexes = @Index(name = "IDX_NOTIFICATION_OUTBOX_DUE", columnList = "STATUS, NEXT_ATTEMPT_AT"))
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "NOTIFICATION_OUTBOX_SEQ", allocationSize = 50)
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    @Column(name = "PAYMENT_ID", nullable = false)
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "PAYMENT_TYPE", nullable = false)
+    private PaymentType paymentType;
+
+    @Column(name = "URL", nullable = false)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
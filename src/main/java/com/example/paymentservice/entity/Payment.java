@@ -1,71 +1,36 @@
 package com.example.paymentservice.entity;
 
-import com.example.paymentservice.types.CurrencyType;
-import com.example.paymentservice.types.PaymentType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.persistence.Version;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.experimental.SuperBuilder;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
-
+/**
+ * A payment created today. Only these can still be canceled, so all writes go to this table; older
+ * days are moved to {@link ArchivedPayment} by {@link com.example.paymentservice.service.PaymentArchiver}.
+ */
 @Entity
 @Getter
 @Setter
-@Builder
+@SuperBuilder
 @NoArgsConstructor
-@AllArgsConstructor
-@Table(name = "PAYMENTS")
-public class Payment {
+@Table(name = "PAYMENTS",
+        indexes = {
+                @Index(name = "IDX_PAYMENTS_ACTIVE_AMOUNT", columnList = "IS_CANCELED, AMOUNT, ID"),
+                @Index(name = "IDX_PAYMENTS_CREATED_AT", columnList = "CREATED_AT")
+        })
+public class Payment extends AbstractPayment {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "PAYMENTS_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     private Long id;
-
-    @Column(name = "CREATED_AT", nullable = false)
-    private LocalDateTime createdAt;
-
-    @Column(name = "AMOUNT", nullable = false)
-    private BigDecimal amount;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "CURRENCY", nullable = false)
-    private CurrencyType currency;
-
-    @Column(name = "DEBTOR_IBAN", nullable = false)
-    private String debtorIban;
-
-    @Column(name = "CREDITOR_IBAN", nullable = false)
-    private String creditorIban;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "TYPE", nullable = false)
-    private PaymentType type;
-
-    @Column(name = "DETAILS")
-    private String details;
-
-    @Column(name = "CREDITOR_BANK_BIC")
-    private String creditorBankBic;
-
-    @Column(name = "IS_CANCELED", nullable = false)
-    private Boolean isCanceled;
-
-    @Column(name = "CANCELLATION_FEE")
-    private BigDecimal cancellationFee;
-
-    @Version
-    @Column(name = "VERSION")
-    private Long version;
 }
@@ -1,7 +1,25 @@
 package com.example.paymentservice.exception;
 
+import java.util.List;
+
+/**
+ * Rejects a request with 422. Created without a stack trace: it only carries messages for the
+ * client, and clients sending invalid requests in bulk should not cost a stack walk per request.
+ */
 public class BusinessValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
     public BusinessValidationException(String message) {
-        super(message);
+        this(List.of(message));
+    }
+
+    public BusinessValidationException(List<String> errors) {
+        super(errors.get(0), null, false, false);
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
     }
-}
\ No newline at end of file
+}
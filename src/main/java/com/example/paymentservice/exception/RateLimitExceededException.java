@@ -0,0 +1,21 @@
+package com.example.paymentservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has used up its rate limit for an endpoint. Created without a stack trace:
+ * it is thrown for every request of a client that keeps calling over its limit.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String limit, Duration retryAfter) {
+        super("Rate limit exceeded for " + limit, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.paymentservice.geo;
+
+/**
+ * Parses textual IP addresses into their numeric form without creating any objects, so it can run
+ * on every request. Unlike {@link java.net.InetAddress} it never falls back to a name lookup.
+ */
+public final class IpAddressParser {
+
+    private IpAddressParser() {
+    }
+
+    /**
+     * Returns the address as an unsigned 32-bit value, or -1 if {@code ip} is not a dotted IPv4 address.
+     */
+    public static long parseIpv4(CharSequence ip) {
+        return parseIpv4(ip, 0, ip.length());
+    }
+
+    static long parseIpv4(CharSequence ip, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || octets == 3) {
+                    return -1;
+                }
+                address = (address << 8) | value;
+                octets++;
+                value = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    /**
+     * Parses an IPv6 address, including the {@code ::} shorthand, a trailing dotted IPv4 part and a
+     * zone id, into {@code out[0]} (high 64 bits) and {@code out[1]} (low 64 bits).
+     *
+     * @return false if {@code ip} is not a valid IPv6 address, in which case {@code out} is untouched
+     */
+    public static boolean parseIpv6(CharSequence ip, long[] out) {
+        int end = ip.length();
+        for (int i = 0; i < end; i++) {
+            if (ip.charAt(i) == '%') {
+                end = i;
+                break;
+            }
+        }
+        if (end < 2) {
+            return false;
+        }
+
+        long headHi = 0;
+        long headLo = 0;
+        int headGroups = 0;
+        long hi = 0;
+        long lo = 0;
+        int groups = 0;
+        boolean compressed = false;
+
+        int i = 0;
+        if (ip.charAt(0) == ':') {
+            if (ip.charAt(1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i = 2;
+        }
+        while (i < end) {
+            int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            int hex;
+            while (i < end && (hex = Character.digit(ip.charAt(i), 16)) >= 0) {
+                if (++digits > 4) {
+                    return false;
+                }
+                value = (value << 4) | hex;
+                i++;
+            }
+            if (i < end && ip.charAt(i) == '.') {
+                long ipv4 = parseIpv4(ip, groupStart, end);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                hi = (hi << 32) | (lo >>> 32);
+                lo = (lo << 32) | ipv4;
+                groups += 2;
+                break;
+            }
+            if (digits == 0) {
+                return false;
+            }
+            hi = (hi << 16) | (lo >>> 48);
+            lo = (lo << 16) | value;
+            groups++;
+            if (i == end) {
+                break;
+            }
+            if (ip.charAt(i++) != ':' || i == end) {
+                return false;
+            }
+            if (ip.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                headHi = hi;
+                headLo = lo;
+                headGroups = groups;
+                hi = 0;
+                lo = 0;
+                groups = 0;
+                i++;
+            }
+        }
+
+        if (!compressed) {
+            if (groups != 8) {
+                return false;
+            }
+            out[0] = hi;
+            out[1] = lo;
+            return true;
+        }
+        if (headGroups + groups > 7) {
+            return false;
+        }
+        int shift = 16 * (8 - headGroups);
+        if (shift >= 128) {
+            headHi = 0;
+            headLo = 0;
+        } else if (shift >= 64) {
+            headHi = headLo << (shift - 64);
+            headLo = 0;
+        } else {
+            headHi = (headHi << shift) | (headLo >>> (64 - shift));
+            headLo = headLo << shift;
+        }
+        out[0] = headHi | hi;
+        out[1] = headLo | lo;
+        return true;
+    }
+}
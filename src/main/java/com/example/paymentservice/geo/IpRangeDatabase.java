@@ -0,0 +1,138 @@
+package com.example.paymentservice.geo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a compiled IP range to country file, memory-mapped so the ranges live in the
+ * page cache rather than on the heap. Lookups are binary searches over fixed-size records.
+ *
+ * <p>File layout (big-endian), as written by {@link IpRangeDatabaseCompiler}:
+ * <pre>
+ * int   magic, int version
+ * int   country count, then per country: short length + UTF-8 name
+ * int   IPv4 range count, then per range: int start, int end, short country index
+ * int   IPv6 range count, then per range: long startHi, long startLo, long endHi, long endLo, short country index
+ * </pre>
+ * Ranges are sorted by start address and do not overlap.
+ */
+public final class IpRangeDatabase {
+
+    static final int MAGIC = 0x49505244;
+    static final int VERSION = 1;
+    static final int IPV4_RECORD_SIZE = 10;
+    static final int IPV6_RECORD_SIZE = 34;
+
+    private static final IpRangeDatabase EMPTY =
+            new IpRangeDatabase(new String[0], ByteBuffer.allocate(0), 0, ByteBuffer.allocate(0), 0);
+
+    private final String[] countries;
+    private final ByteBuffer ipv4Ranges;
+    private final int ipv4Count;
+    private final ByteBuffer ipv6Ranges;
+    private final int ipv6Count;
+
+    private IpRangeDatabase(String[] countries, ByteBuffer ipv4Ranges, int ipv4Count,
+                            ByteBuffer ipv6Ranges, int ipv6Count) {
+        this.countries = countries;
+        this.ipv4Ranges = ipv4Ranges;
+        this.ipv4Count = ipv4Count;
+        this.ipv6Ranges = ipv6Ranges;
+        this.ipv6Count = ipv6Count;
+    }
+
+    public static IpRangeDatabase empty() {
+        return EMPTY;
+    }
+
+    public static IpRangeDatabase open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not an IP range database: " + file);
+            }
+            String[] countries = new String[buffer.getInt()];
+            for (int i = 0; i < countries.length; i++) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                countries[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            int ipv4Count = buffer.getInt();
+            ByteBuffer ipv4Ranges = buffer.slice(buffer.position(), ipv4Count * IPV4_RECORD_SIZE);
+            buffer.position(buffer.position() + ipv4Count * IPV4_RECORD_SIZE);
+            int ipv6Count = buffer.getInt();
+            ByteBuffer ipv6Ranges = buffer.slice(buffer.position(), ipv6Count * IPV6_RECORD_SIZE);
+            return new IpRangeDatabase(countries, ipv4Ranges, ipv4Count, ipv6Ranges, ipv6Count);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt IP range database: " + file, e);
+        }
+    }
+
+    /**
+     * @param address unsigned 32-bit IPv4 address
+     * @return the country of the range containing the address, or null if none does
+     */
+    public String findIpv4(long address) {
+        int ip = (int) address;
+        int low = 0;
+        int high = ipv4Count - 1;
+        int match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(ipv4Ranges.getInt(mid * IPV4_RECORD_SIZE), ip) <= 0) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (match < 0 || Integer.compareUnsigned(ip, ipv4Ranges.getInt(match * IPV4_RECORD_SIZE + 4)) > 0) {
+            return null;
+        }
+        return countries[ipv4Ranges.getShort(match * IPV4_RECORD_SIZE + 8)];
+    }
+
+    /**
+     * @return the country of the range containing the 128-bit address {@code hi:lo}, or null if none does
+     */
+    public String findIpv6(long hi, long lo) {
+        int low = 0;
+        int high = ipv6Count - 1;
+        int match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = mid * IPV6_RECORD_SIZE;
+            if (compare(ipv6Ranges.getLong(offset), ipv6Ranges.getLong(offset + 8), hi, lo) <= 0) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (match < 0) {
+            return null;
+        }
+        int offset = match * IPV6_RECORD_SIZE;
+        if (compare(hi, lo, ipv6Ranges.getLong(offset + 16), ipv6Ranges.getLong(offset + 24)) > 0) {
+            return null;
+        }
+        return countries[ipv6Ranges.getShort(offset + 32)];
+    }
+
+    public int rangeCount() {
+        return ipv4Count + ipv6Count;
+    }
+
+    static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int result = Long.compareUnsigned(hi1, hi2);
+        return result != 0 ? result : Long.compareUnsigned(lo1, lo2);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.paymentservice.geo;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@code start_ip,end_ip,country} CSV file into the binary format read by
+ * {@link IpRangeDatabase}. Blank lines, lines starting with {@code #} and a header line whose first
+ * column is not an address are skipped. The output is written to a temporary file and moved into
+ * place, so a running service never maps a half-written file.
+ *
+ * <p>Usage: {@code IpRangeDatabaseCompiler <input.csv> <output.bin>}
+ */
+public final class IpRangeDatabaseCompiler {
+
+    private IpRangeDatabaseCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: IpRangeDatabaseCompiler <input.csv> <output.bin>");
+            System.exit(1);
+        }
+        int ranges = compile(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Compiled " + ranges + " ranges into " + args[1]);
+    }
+
+    public static int compile(Path csv, Path output) throws IOException {
+        Map<String, Integer> countries = new LinkedHashMap<>();
+        List<Ipv4Range> ipv4Ranges = new ArrayList<>();
+        List<Ipv6Range> ipv6Ranges = new ArrayList<>();
+        long[] start = new long[2];
+        long[] end = new long[2];
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", 3);
+                if (columns.length != 3) {
+                    throw new IOException("Line " + lineNumber + ": expected start_ip,end_ip,country");
+                }
+                String startIp = columns[0].trim();
+                String endIp = columns[1].trim();
+                String country = unquote(columns[2].trim());
+
+                long startV4 = IpAddressParser.parseIpv4(startIp);
+                long endV4 = IpAddressParser.parseIpv4(endIp);
+                if (startV4 >= 0 && endV4 >= 0) {
+                    if (startV4 > endV4) {
+                        throw new IOException("Line " + lineNumber + ": range start is after its end");
+                    }
+                    ipv4Ranges.add(new Ipv4Range(startV4, endV4, countryIndex(countries, country)));
+                } else if (IpAddressParser.parseIpv6(startIp, start) && IpAddressParser.parseIpv6(endIp, end)) {
+                    if (IpRangeDatabase.compare(start[0], start[1], end[0], end[1]) > 0) {
+                        throw new IOException("Line " + lineNumber + ": range start is after its end");
+                    }
+                    ipv6Ranges.add(new Ipv6Range(start[0], start[1], end[0], end[1], countryIndex(countries, country)));
+                } else if (lineNumber > 1) {
+                    throw new IOException("Line " + lineNumber + ": invalid IP address range");
+                }
+            }
+        }
+
+        ipv4Ranges.sort(Comparator.comparingLong(Ipv4Range::start));
+        ipv6Ranges.sort((a, b) -> IpRangeDatabase.compare(a.startHi(), a.startLo(), b.startHi(), b.startLo()));
+        checkNoOverlap(ipv4Ranges, ipv6Ranges);
+
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), output.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(IpRangeDatabase.MAGIC);
+            out.writeInt(IpRangeDatabase.VERSION);
+            out.writeInt(countries.size());
+            for (String country : countries.keySet()) {
+                byte[] name = country.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            out.writeInt(ipv4Ranges.size());
+            for (Ipv4Range range : ipv4Ranges) {
+                out.writeInt((int) range.start());
+                out.writeInt((int) range.end());
+                out.writeShort(range.country());
+            }
+            out.writeInt(ipv6Ranges.size());
+            for (Ipv6Range range : ipv6Ranges) {
+                out.writeLong(range.startHi());
+                out.writeLong(range.startLo());
+                out.writeLong(range.endHi());
+                out.writeLong(range.endLo());
+                out.writeShort(range.country());
+            }
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return ipv4Ranges.size() + ipv6Ranges.size();
+    }
+
+    private static void checkNoOverlap(List<Ipv4Range> ipv4Ranges, List<Ipv6Range> ipv6Ranges) throws IOException {
+        for (int i = 1; i < ipv4Ranges.size(); i++) {
+            if (ipv4Ranges.get(i).start() <= ipv4Ranges.get(i - 1).end()) {
+                throw new IOException("Overlapping IPv4 ranges starting at index " + (i - 1));
+            }
+        }
+        for (int i = 1; i < ipv6Ranges.size(); i++) {
+            Ipv6Range previous = ipv6Ranges.get(i - 1);
+            Ipv6Range current = ipv6Ranges.get(i);
+            if (IpRangeDatabase.compare(current.startHi(), current.startLo(), previous.endHi(), previous.endLo()) <= 0) {
+                throw new IOException("Overlapping IPv6 ranges starting at index " + (i - 1));
+            }
+        }
+    }
+
+    private static int countryIndex(Map<String, Integer> countries, String country) {
+        return countries.computeIfAbsent(country, name -> countries.size());
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private record Ipv4Range(long start, long end, int country) {
+    }
+
+    private record Ipv6Range(long startHi, long startLo, long endHi, long endLo, int country) {
+    }
+}
@@ -2,7 +2,9 @@ package com.example.paymentservice.handler;
 
 import com.example.paymentservice.dto.ErrorResponseDto;
 import com.example.paymentservice.exception.BusinessValidationException;
+import com.example.paymentservice.exception.RateLimitExceededException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,10 +13,14 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -28,11 +34,7 @@ public class GlobalExceptionHandler {
                 .map(FieldError::getDefaultMessage)
                 .toList();
 
-        ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
-                .errors(errors)
-                .build();
-
-        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponseDTO);
+        return unprocessableEntity(errors);
     }
 
 
@@ -61,12 +63,17 @@ public class GlobalExceptionHandler {
     }
 
 
-    @ExceptionHandler(BusinessValidationException.class)
-    public ResponseEntity<ErrorResponseDto> handle(BusinessValidationException ex) {
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponseDto> handle(MethodArgumentTypeMismatchException ex) {
         ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
-                .errors(List.of(ex.getMessage()))
+                .errors(List.of(String.format("Parameter '%s' has invalid value '%s'", ex.getName(), ex.getValue())))
                 .build();
-        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponseDTO);
+        return ResponseEntity.badRequest().body(errorResponseDTO);
+    }
+
+    @ExceptionHandler(BusinessValidationException.class)
+    public ResponseEntity<ErrorResponseDto> handle(BusinessValidationException ex) {
+        return unprocessableEntity(ex.getErrors());
     }
 
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
@@ -87,6 +94,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getStatusCode()).body(errorResponseDTO);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handle(RateLimitExceededException ex) {
+        ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
+                .errors(List.of("Too many requests. Please try again later."))
+                .build();
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(errorResponseDTO);
+    }
+
+    /**
+     * The asynchronous controller's database executor queue is full.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponseDto> handle(RejectedExecutionException ex) {
+        ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
+                .errors(List.of("The service is busy. Please try again later."))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponseDTO);
+    }
+
+    @ExceptionHandler({TimeoutException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ErrorResponseDto> handleTimeout(Exception ex) {
+        ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
+                .errors(List.of("The request timed out. Please try again later."))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponseDTO);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGenericException(Exception ex) {
         ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
@@ -94,4 +131,16 @@ public class GlobalExceptionHandler {
                 .build();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponseDTO);
     }
+
+    /**
+     * Response for requests that break validation or business rules. Also used by controllers that
+     * get the violated rules as a {@link com.example.paymentservice.validation.ValidationResult}
+     * instead of an exception.
+     */
+    public static ResponseEntity<ErrorResponseDto> unprocessableEntity(List<String> errors) {
+        ErrorResponseDto errorResponseDTO = ErrorResponseDto.builder()
+                .errors(errors)
+                .build();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponseDTO);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.paymentservice.http;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and calls are rejected for {@code openDuration}; then a single trial call is let through,
+ * whose outcome closes the circuit again or re-opens it.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Ordered from healthy to unhealthy, the ordinal is what gets exported as the state gauge.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTicker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoTicker) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTicker = nanoTicker;
+    }
+
+    /**
+     * @return whether a call may be made now; every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onNotCalled()}
+     */
+    public synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (nanoTicker.getAsLong() - openedAtNanos < openNanos) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+            // the trial call is still in flight
+            case HALF_OPEN -> false;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = nanoTicker.getAsLong();
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * The permitted call was not made after all, so its outcome says nothing about the target. A
+     * trial call is handed back and the next caller may make it.
+     */
+    public synchronized void onNotCalled() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.paymentservice.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making a call while the circuit of the target host is open. RestTemplate
+ * reports it as a {@link org.springframework.web.client.ResourceAccessException}, like any other
+ * I/O failure.
+ */
+public class CircuitBreakerOpenException extends IOException {
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker is open for host " + host);
+    }
+}
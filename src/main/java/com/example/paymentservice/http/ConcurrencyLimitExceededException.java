@@ -0,0 +1,13 @@
+package com.example.paymentservice.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making a call when too many outbound calls are already in flight. RestTemplate
+ * reports it as a {@link org.springframework.web.client.ResourceAccessException}.
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+    public ConcurrencyLimitExceededException(String resource) {
+        super("Concurrency limit reached for " + resource);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.paymentservice.http;
+
+import com.example.paymentservice.concurrency.ConcurrencyLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds the number of outbound calls in flight. The permit is held until the response is closed,
+ * so reading the body counts towards the limit as well.
+ */
+public class ConcurrencyLimitingHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitingHttpRequestInterceptor(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(limiter.getName());
+        }
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body));
+        } catch (IOException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    private class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.paymentservice.http;
+
+import com.example.paymentservice.config.OutboundHttpProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Guards every outbound call with a circuit breaker per target host and retries idempotent
+ * requests that failed with an I/O error, 429 or 5xx. Retries wait a random time of up to
+ * {@code initialBackoff * 2^(attempt - 1)}, capped at {@code maxBackoff} ("full jitter"), so
+ * clients that failed together do not retry together.
+ *
+ * <p>Each attempt runs through {@code attemptInterceptor}, e.g. a
+ * {@link ConcurrencyLimitingHttpRequestInterceptor}. Interceptors after this one in the
+ * {@link org.springframework.web.client.RestTemplate} chain would only see the first attempt,
+ * because a repeated {@link ClientHttpRequestExecution#execute} goes straight to the request factory.
+ */
+public class ResilientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final OutboundHttpProperties.Retry retry;
+    private final OutboundHttpProperties.CircuitBreaker circuitBreaker;
+    private final MeterRegistry registry;
+    private final ClientHttpRequestInterceptor attemptInterceptor;
+    private final ConcurrentHashMap<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public ResilientHttpRequestInterceptor(OutboundHttpProperties properties, MeterRegistry registry,
+                                           ClientHttpRequestInterceptor attemptInterceptor) {
+        this.retry = properties.retry();
+        this.circuitBreaker = properties.circuitBreaker();
+        this.registry = registry;
+        this.attemptInterceptor = attemptInterceptor;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        HostState state = hosts.computeIfAbsent(host, this::register);
+        int maxAttempts = IDEMPOTENT_METHODS.contains(request.getMethod()) ? retry.maxAttempts() : 1;
+
+        for (int attempt = 1; ; attempt++) {
+            if (!state.breaker().tryAcquire()) {
+                state.rejected().increment();
+                throw new CircuitBreakerOpenException(host);
+            }
+            ClientHttpResponse response;
+            try {
+                response = attemptInterceptor.intercept(request, body, execution);
+            } catch (ConcurrencyLimitExceededException e) {
+                // Rejected by our own limiter before the host was called: neither a failure of the
+                // host nor worth retrying while the limit is reached
+                state.breaker().onNotCalled();
+                throw e;
+            } catch (IOException e) {
+                state.breaker().onFailure();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(state, attempt);
+                continue;
+            } catch (RuntimeException | Error e) {
+                // Must still settle the breaker, or a half-open circuit would wait for this trial forever
+                state.breaker().onFailure();
+                throw e;
+            }
+            if (!isRetryable(response.getStatusCode())) {
+                state.breaker().onSuccess();
+                return response;
+            }
+            state.breaker().onFailure();
+            if (attempt >= maxAttempts) {
+                return response;
+            }
+            response.close();
+            backOff(state, attempt);
+        }
+    }
+
+    public CircuitBreaker.State circuitState(String host) {
+        HostState state = hosts.get(host);
+        return state == null ? CircuitBreaker.State.CLOSED : state.breaker().getState();
+    }
+
+    private boolean isRetryable(HttpStatusCode status) {
+        return status.is5xxServerError() || status.value() == 429;
+    }
+
+    private void backOff(HostState state, int attempt) throws InterruptedIOException {
+        state.retries().increment();
+        long ceiling = Math.min(retry.maxBackoff().toMillis(),
+                retry.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    private HostState register(String host) {
+        CircuitBreaker breaker = new CircuitBreaker(circuitBreaker.failureThreshold(), circuitBreaker.openDuration());
+        Gauge.builder("http.client.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .tag("host", host)
+                .register(registry);
+        return new HostState(breaker,
+                Counter.builder("http.client.retries").tag("host", host).register(registry),
+                Counter.builder("http.client.circuit.rejected").tag("host", host).register(registry));
+    }
+
+    private record HostState(CircuitBreaker breaker, Counter retries, Counter rejected) {
+    }
+}
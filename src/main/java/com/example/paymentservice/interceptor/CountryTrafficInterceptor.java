@@ -1,6 +1,7 @@
 package com.example.paymentservice.interceptor;
 
 import com.example.paymentservice.service.CountryResolverService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -9,19 +10,25 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 @Component
 @RequiredArgsConstructor
-public class CountryLoggingInterceptor implements HandlerInterceptor {
+public class CountryTrafficInterceptor implements HandlerInterceptor {
 
     private final CountryResolverService countryResolverService;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String ip = resolveClientIp(request);
-        countryResolverService.resolveAndLog(ip);
+        // The dispatch that writes the result of an asynchronous request was already counted
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            countryResolverService.resolveAndCount(resolveClientIp(request));
+        }
         return true;
     }
 
-    private String resolveClientIp(HttpServletRequest request) {
+    static String resolveClientIp(HttpServletRequest request) {
         String forwarded = request.getHeader("X-Forwarded-For");
-        return (forwarded != null) ? forwarded.split(",")[0].trim() : request.getRemoteAddr();
+        if (forwarded == null) {
+            return request.getRemoteAddr();
+        }
+        int comma = forwarded.indexOf(',');
+        return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.example.paymentservice.interceptor;
+
+import com.example.paymentservice.concurrency.TokenBucketRateLimiter;
+import com.example.paymentservice.exception.RateLimitExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejects requests of clients that exceeded the rate limit of the endpoint they call. The endpoint
+ * is identified by the request mapping pattern the handler was matched with, so the check is two
+ * map lookups and one bucket update under a stripe lock.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public record Limit(String method, String pattern, TokenBucketRateLimiter limiter) {
+    }
+
+    private final Map<String, Map<String, TokenBucketRateLimiter>> limitersByPattern = new HashMap<>();
+
+    public RateLimitInterceptor(List<Limit> limits) {
+        for (Limit limit : limits) {
+            limitersByPattern.computeIfAbsent(limit.pattern(), pattern -> new HashMap<>())
+                    .put(limit.method(), limit.limiter());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The dispatch that writes the result of an asynchronous request was already counted
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Map<String, TokenBucketRateLimiter> byMethod =
+                limitersByPattern.get(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        TokenBucketRateLimiter limiter = byMethod == null ? null : byMethod.get(request.getMethod());
+        if (limiter == null) {
+            return true;
+        }
+        // Not X-Forwarded-For: a client could send a new value with every request and always get a
+        // full bucket. Behind a trusted proxy, server.forward-headers-strategy sets the remote address.
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(limiter.getName(), Duration.ofNanos(waitNanos));
+        }
+        return true;
+    }
+
+    public List<TokenBucketRateLimiter> getLimiters() {
+        return limitersByPattern.values().stream()
+                .flatMap(byMethod -> byMethod.values().stream())
+                .toList();
+    }
+}
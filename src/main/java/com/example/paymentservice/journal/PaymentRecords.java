@@ -0,0 +1,159 @@
+package com.example.paymentservice.journal;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of payment changes as {@link SegmentedJournal} records (big-endian).
+ * <pre>
+ * PUT    byte 1, long id, long version, long createdAt epoch second (UTC), int nanos,
+ *        long amount, byte currency ordinal, byte type ordinal, byte flags (1 = canceled, 2 = has fee),
+ *        long cancellation fee, then debtor IBAN, creditor IBAN, details, creditor BIC,
+ *        idempotency key and request hash, each as short length (-1 for null) + UTF-8
+ * CANCEL byte 2, long id, long new version, long cancellation fee
+ * CLEAR  byte 3
+ * </pre>
+ * Amounts and fees are in minor units. Enums are stored by ordinal, so new constants may only be
+ * appended. PUT records written before the request hash was added end after the idempotency key.
+ */
+public final class PaymentRecords {
+
+    static final byte PUT = 1;
+    static final byte CANCEL = 2;
+    static final byte CLEAR = 3;
+
+    private static final int PUT_FIXED_SIZE = 1 + 8 + 8 + 8 + 4 + 8 + 1 + 1 + 1 + 8;
+    private static final byte CANCELED = 1;
+    private static final byte HAS_FEE = 2;
+
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+    private static final PaymentType[] TYPES = PaymentType.values();
+
+    private PaymentRecords() {
+    }
+
+    /**
+     * Receives decoded records.
+     */
+    public interface Handler {
+
+        void put(Payment payment);
+
+        void cancel(long id, long version, long feeMinorUnits);
+
+        void clear();
+    }
+
+    public static ByteBuffer put(Payment payment) {
+        byte[][] strings = {
+                utf8(payment.getDebtorIban()),
+                utf8(payment.getCreditorIban()),
+                utf8(payment.getDetails()),
+                utf8(payment.getCreditorBankBic()),
+                utf8(payment.getIdempotencyKey()),
+                utf8(payment.getRequestHash())
+        };
+        int size = PUT_FIXED_SIZE;
+        for (byte[] string : strings) {
+            size += 2 + (string == null ? 0 : string.length);
+        }
+        ByteBuffer record = ByteBuffer.allocate(size);
+        record.put(PUT)
+                .putLong(payment.getId())
+                .putLong(payment.getVersion());
+        LocalDateTime createdAt = payment.getCreatedAt();
+        record.putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(payment.getAmount())
+                .put((byte) payment.getCurrency().ordinal())
+                .put((byte) payment.getType().ordinal());
+        boolean canceled = Boolean.TRUE.equals(payment.getIsCanceled());
+        boolean hasFee = payment.getCancellationFee() != null;
+        record.put((byte) ((canceled ? CANCELED : 0) | (hasFee ? HAS_FEE : 0)))
+                .putLong(hasFee ? Money.toMinorUnits(payment.getCancellationFee()) : 0L);
+        for (byte[] string : strings) {
+            if (string == null) {
+                record.putShort((short) -1);
+            } else {
+                record.putShort((short) string.length).put(string);
+            }
+        }
+        return record.flip();
+    }
+
+    public static ByteBuffer cancel(long id, long version, long feeMinorUnits) {
+        return ByteBuffer.allocate(1 + 8 + 8 + 8)
+                .put(CANCEL)
+                .putLong(id)
+                .putLong(version)
+                .putLong(feeMinorUnits)
+                .flip();
+    }
+
+    public static ByteBuffer clear() {
+        return ByteBuffer.allocate(1).put(CLEAR).flip();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the record is not one of the types above
+     */
+    public static void read(ByteBuffer record, Handler handler) {
+        byte type = record.get();
+        switch (type) {
+            case PUT -> handler.put(readPut(record));
+            case CANCEL -> handler.cancel(record.getLong(), record.getLong(), record.getLong());
+            case CLEAR -> handler.clear();
+            default -> throw new IllegalArgumentException("Unknown payment record type " + type);
+        }
+    }
+
+    private static Payment readPut(ByteBuffer record) {
+        Payment payment = new Payment();
+        payment.setId(record.getLong());
+        payment.setVersion(record.getLong());
+        long epochSecond = record.getLong();
+        payment.setCreatedAt(LocalDateTime.ofEpochSecond(epochSecond, record.getInt(), ZoneOffset.UTC));
+        payment.setAmount(record.getLong());
+        payment.setCurrency(CURRENCIES[record.get()]);
+        payment.setType(TYPES[record.get()]);
+        byte flags = record.get();
+        long fee = record.getLong();
+        payment.setIsCanceled((flags & CANCELED) != 0);
+        payment.setCancellationFee((flags & HAS_FEE) != 0 ? Money.toBigDecimal(fee) : null);
+        payment.setDebtorIban(readString(record));
+        payment.setCreditorIban(readString(record));
+        payment.setDetails(readString(record));
+        payment.setCreditorBankBic(readString(record));
+        payment.setIdempotencyKey(readString(record));
+        payment.setRequestHash(record.hasRemaining() ? readString(record) : null);
+        return payment;
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Payment field longer than " + Short.MAX_VALUE + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer record) {
+        short length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.paymentservice.journal;
+
+import com.example.paymentservice.entity.Payment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time copy of every payment, written so that recovery only has to replay the journal from
+ * {@link Header#position()} on.
+ *
+ * <p>File layout (big-endian):
+ * <pre>
+ * int  magic, int version
+ * int  journal segment, int offset, long next id, int payment count
+ * per payment: int length, int CRC32C, {@link PaymentRecords} PUT record
+ * </pre>
+ * The file is written under a temporary name and moved into place, so a crash while writing leaves
+ * the previous snapshot intact.
+ */
+public final class PaymentSnapshot {
+
+    static final int MAGIC = 0x50534E50;
+    static final int VERSION = 1;
+
+    private PaymentSnapshot() {
+    }
+
+    public record Header(SegmentedJournal.Position position, long nextId) {
+    }
+
+    public static void write(Path file, Header header, Collection<Payment> payments) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(header.position().segment());
+            out.writeInt(header.position().offset());
+            out.writeLong(header.nextId());
+            out.writeInt(payments.size());
+            CRC32C crc = new CRC32C();
+            for (Payment payment : payments) {
+                ByteBuffer record = PaymentRecords.put(payment);
+                crc.reset();
+                crc.update(record.duplicate());
+                out.writeInt(record.remaining());
+                out.writeInt((int) crc.getValue());
+                out.write(record.array(), record.arrayOffset(), record.remaining());
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Passes every payment in the snapshot to {@code handler}.
+     *
+     * @return the header, or empty if there is no snapshot yet
+     */
+    public static Optional<Header> read(Path file, PaymentRecords.Handler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a payment snapshot: " + file);
+            }
+            Header header = new Header(new SegmentedJournal.Position(buffer.getInt(), buffer.getInt()), buffer.getLong());
+            int count = buffer.getInt();
+            CRC32C crc = new CRC32C();
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch in payment snapshot: " + file);
+                }
+                PaymentRecords.read(record, handler);
+                buffer.position(buffer.position() + length);
+            }
+            return Optional.of(header);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt payment snapshot: " + file, e);
+        }
+    }
+}
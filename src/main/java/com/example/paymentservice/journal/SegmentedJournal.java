@@ -0,0 +1,207 @@
+package com.example.paymentservice.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records in fixed-size, memory-mapped segment files. Appends are plain
+ * memory writes into the mapped segment; the operating system writes them back to disk unless
+ * {@code forceWrites} asks for every record to be flushed before {@link #append} returns.
+ *
+ * <p>Segment layout (big-endian): a sequence of {@code int length, int CRC32C, byte[length] body}
+ * frames. The length is written last, so a frame whose length is still 0 was never completed and
+ * marks the end of the segment, as does running out of space. A frame with a bad length or
+ * checksum can only be a write torn by a crash; {@link #open} stops there and zeroes the rest of
+ * the segment so the next append overwrites it.
+ */
+public final class SegmentedJournal implements Closeable {
+
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{10})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceWrites;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segment;
+    private boolean tornWrite;
+
+    public SegmentedJournal(Path directory, int segmentSize, boolean forceWrites) {
+        if (segmentSize <= FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceWrites = forceWrites;
+    }
+
+    /**
+     * Replays every intact record from {@code from} on, in append order, and positions the journal
+     * after the last one. The buffers passed to {@code consumer} are only valid during the call.
+     */
+    public synchronized void open(Position from, Consumer<ByteBuffer> consumer) throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segments = listSegments().stream().filter(s -> s >= from.segment()).toList();
+        if (segments.isEmpty()) {
+            map(from.offset() == 0 ? from.segment() : from.segment() + 1);
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) != from.segment() + i) {
+                throw new IOException("Journal segment " + (from.segment() + i) + " is missing in " + directory);
+            }
+            map(segments.get(i));
+            int offset = replay(i == 0 ? from.offset() : 0, consumer);
+            if (tornWrite && i < segments.size() - 1) {
+                throw new IOException("Corrupt journal segment " + segments.get(i) + " in " + directory);
+            }
+            buffer.position(offset);
+        }
+    }
+
+    /**
+     * Appends one record, rolling over to a new segment when the current one is full.
+     *
+     * @return the position right after the record
+     */
+    public synchronized Position append(ByteBuffer record) {
+        int frameSize = FRAME_HEADER_SIZE + record.remaining();
+        if (!record.hasRemaining()) {
+            throw new IllegalArgumentException("Empty records cannot be told apart from the end of a segment");
+        }
+        if (frameSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + record.remaining() + " bytes does not fit in a segment");
+        }
+        try {
+            if (buffer.remaining() < frameSize) {
+                map(segment + 1);
+            }
+            int start = buffer.position();
+            CRC32C crc = new CRC32C();
+            crc.update(record.duplicate());
+            buffer.put(start + FRAME_HEADER_SIZE, record, record.position(), record.remaining());
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start, record.remaining());
+            buffer.position(start + frameSize);
+            if (forceWrites) {
+                buffer.force(start, frameSize);
+            }
+            return position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized Position position() {
+        return new Position(segment, buffer.position());
+    }
+
+    /**
+     * Flushes appended records to disk.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Deletes the segments that only hold records before {@code position}, once a snapshot has
+     * made them redundant.
+     */
+    public synchronized void deleteSegmentsBefore(Position position) throws IOException {
+        for (int s : listSegments()) {
+            if (s < position.segment()) {
+                Files.deleteIfExists(segmentFile(s));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * @return the offset after the last intact record
+     */
+    private int replay(int offset, Consumer<ByteBuffer> consumer) {
+        tornWrite = false;
+        CRC32C crc = new CRC32C();
+        while (offset <= segmentSize - FRAME_HEADER_SIZE) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length < 0 || length > segmentSize - offset - FRAME_HEADER_SIZE) {
+                return zeroFrom(offset);
+            }
+            ByteBuffer record = buffer.slice(offset + FRAME_HEADER_SIZE, length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                return zeroFrom(offset);
+            }
+            consumer.accept(record.asReadOnlyBuffer());
+            offset += FRAME_HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private int zeroFrom(int offset) {
+        tornWrite = true;
+        for (int i = offset; i < segmentSize; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        return offset;
+    }
+
+    private void map(int newSegment) throws IOException {
+        close();
+        channel = FileChannel.open(segmentFile(newSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment = newSegment;
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Integer.parseInt(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("segment-%010d.log", segment));
+    }
+
+    /**
+     * A point in the journal: the segment number and the byte offset within it.
+     */
+    public record Position(int segment, int offset) {
+
+        public static final Position START = new Position(1, 0);
+    }
+}
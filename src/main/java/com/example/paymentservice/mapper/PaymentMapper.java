@@ -1,11 +1,21 @@
 package com.example.paymentservice.mapper;
 
+import com.example.paymentservice.dto.BatchPaymentResultDto;
 import com.example.paymentservice.dto.CreatePaymentRequestDto;
+import com.example.paymentservice.dto.PaymentExportDto;
 import com.example.paymentservice.dto.PaymentResponseDto;
+import com.example.paymentservice.dto.PaymentStatsDto;
 import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.model.PaymentBatchItem;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentSummary;
+import com.example.paymentservice.model.PaymentTotals;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.IntStream;
 
 @Component
 public class PaymentMapper {
@@ -15,7 +25,7 @@ public class PaymentMapper {
             return null;
         }
         return Payment.builder()
-                .amount(requestDto.getAmount())
+                .amount(toMinorUnits(requestDto.getAmount()))
                 .currency(requestDto.getCurrency())
                 .debtorIban(requestDto.getDebtorIban())
                 .creditorIban(requestDto.getCreditorIban())
@@ -35,6 +45,16 @@ public class PaymentMapper {
                 .build();
     }
 
+    public PaymentResponseDto toDto(PaymentSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        return PaymentResponseDto.builder()
+                .id(summary.id())
+                .cancellationFee(summary.cancellationFee())
+                .build();
+    }
+
     public PaymentResponseDto toDtoIdOnly(Payment payment) {
         if (payment == null) {
             return null;
@@ -44,8 +64,73 @@ public class PaymentMapper {
                 .build();
     }
 
-    public List<PaymentResponseDto> toDtoListIdOnly(List<Payment> payments) {
+    public PaymentStatsDto toStatsDto(PaymentTotals totals) {
+        if (totals == null) {
+            return null;
+        }
+        return PaymentStatsDto.builder()
+                .currency(totals.currency())
+                .type(totals.type())
+                .activeCount(totals.activeCount())
+                .activeAmount(Money.toBigDecimal(totals.activeAmount()))
+                .canceledCount(totals.canceledCount())
+                .cancellationFees(Money.toBigDecimal(totals.cancellationFees()))
+                .build();
+    }
+
+    public PaymentExportDto toExportDto(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        return PaymentExportDto.builder()
+                .id(payment.getId())
+                .createdAt(payment.getCreatedAt())
+                .amount(Money.toBigDecimal(payment.getAmount()))
+                .currency(payment.getCurrency())
+                .debtorIban(payment.getDebtorIban())
+                .creditorIban(payment.getCreditorIban())
+                .type(payment.getType())
+                .details(payment.getDetails())
+                .creditorBankBic(payment.getCreditorBankBic())
+                .build();
+    }
+
+    public PaymentResponseDto toDtoIdOnly(PaymentKey payment) {
+        if (payment == null) {
+            return null;
+        }
+        return PaymentResponseDto.builder()
+                .id(payment.id())
+                .build();
+    }
+
+    public List<PaymentResponseDto> toDtoListIdOnly(List<PaymentKey> payments) {
         return payments.stream().map(this::toDtoIdOnly).toList();
 
     }
-}
\ No newline at end of file
+
+    public List<PaymentStatsDto> toStatsDtoList(List<PaymentTotals> totals) {
+        return totals.stream().map(this::toStatsDto).toList();
+    }
+
+    /**
+     * Amounts that fail {@code @MonetaryAmount} are left out; such a request is rejected anyway.
+     */
+    private static Long toMinorUnits(BigDecimal amount) {
+        return amount == null || !Money.isExactAmount(amount) ? null : Money.toMinorUnits(amount);
+    }
+
+    public List<BatchPaymentResultDto> toBatchResultDtoList(List<PaymentBatchItem> items) {
+        return IntStream.range(0, items.size())
+                .mapToObj(index -> toBatchResultDto(index, items.get(index)))
+                .toList();
+    }
+
+    private BatchPaymentResultDto toBatchResultDto(int index, PaymentBatchItem item) {
+        return BatchPaymentResultDto.builder()
+                .index(index)
+                .id(item.isValid() ? item.getPayment().getId() : null)
+                .errors(item.isValid() ? null : item.getErrors())
+                .build();
+    }
+}
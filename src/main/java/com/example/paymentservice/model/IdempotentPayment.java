@@ -0,0 +1,9 @@
+package com.example.paymentservice.model;
+
+/**
+ * The payment stored for an idempotency key together with the hash of the request that created it,
+ * so a repeat can be told apart from a different request reusing the key. {@code requestHash} is
+ * null for payments created before hashes were stored.
+ */
+public record IdempotentPayment(Long id, String requestHash) {
+}
@@ -0,0 +1,73 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.types.CurrencyType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of minor units (cents) of its currency. Both supported
+ * currencies have two decimal places, so {@code 125.50 EUR} is {@code Money(12550, EUR)}.
+ * Arithmetic stays on longs; {@link BigDecimal} is only used at the API edge.
+ */
+public record Money(long minorUnits, CurrencyType currency) {
+
+    public static final int SCALE = 2;
+
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(Long.MAX_VALUE, SCALE);
+
+    /**
+     * @return {@code minorUnitsPerUnit * units}, e.g. a fee per started hour times the hours
+     */
+    public static Money perUnit(long minorUnitsPerUnit, long units, CurrencyType currency) {
+        return new Money(Math.multiplyExact(minorUnitsPerUnit, units), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits);
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Whether {@code amount} is written with exactly the currency's two decimal places and fits in
+     * a long of minor units.
+     */
+    public static boolean isExactAmount(BigDecimal amount) {
+        return amount.scale() == SCALE && amount.abs().compareTo(MAX_AMOUNT) <= 0;
+    }
+
+    /**
+     * @throws ArithmeticException if {@code amount} has more decimal places than minor units allow
+     *                             or does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The smallest number of minor units that is not below {@code bound}, clamped to the long range.
+     */
+    public static long ceilMinorUnits(BigDecimal bound) {
+        return boundMinorUnits(bound, RoundingMode.CEILING);
+    }
+
+    /**
+     * The largest number of minor units that is not above {@code bound}, clamped to the long range.
+     */
+    public static long floorMinorUnits(BigDecimal bound) {
+        return boundMinorUnits(bound, RoundingMode.FLOOR);
+    }
+
+    private static long boundMinorUnits(BigDecimal bound, RoundingMode rounding) {
+        if (bound.compareTo(MAX_AMOUNT) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (bound.compareTo(MAX_AMOUNT.negate()) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return bound.setScale(SCALE, rounding).unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.entity.Payment;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One entry of a batch creation request together with the errors that kept it from being stored.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PaymentBatchItem {
+
+    private final Payment payment;
+    private final List<String> errors;
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public void reject(String error) {
+        errors.add(error);
+    }
+}
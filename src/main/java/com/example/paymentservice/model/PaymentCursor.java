@@ -0,0 +1,46 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.types.PaymentSortType;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationError;
+import com.example.paymentservice.validation.ValidationResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in the active payments listing. Encoded as an opaque
+ * URL-safe token so clients only ever pass back what they received.
+ */
+public record PaymentCursor(PaymentSortType sort, Long amount, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public static PaymentCursor after(PaymentKey payment, PaymentSortType sort) {
+        Long amount = sort == PaymentSortType.AMOUNT ? payment.amount() : null;
+        return new PaymentCursor(sort, amount, payment.id());
+    }
+
+    public String encode() {
+        String raw = sort == PaymentSortType.AMOUNT
+                ? sort + SEPARATOR + amount + SEPARATOR + id
+                : sort + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Validated<PaymentCursor> decode(String token, PaymentSortType sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (PaymentSortType.valueOf(parts[0]) != sort) {
+                return Validated.rejected(ValidationResult.of(ValidationError.CURSOR_SORT));
+            }
+            return Validated.of(switch (sort) {
+                case ID -> new PaymentCursor(sort, null, Long.valueOf(parts[1]));
+                case AMOUNT -> new PaymentCursor(sort, Long.valueOf(parts[1]), Long.valueOf(parts[2]));
+            });
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Validated.rejected(ValidationResult.of(ValidationError.CURSOR));
+        }
+    }
+}
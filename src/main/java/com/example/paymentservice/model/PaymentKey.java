@@ -0,0 +1,8 @@
+package com.example.paymentservice.model;
+
+/**
+ * The columns the active payments listing needs: the id it returns and the amount its cursor
+ * may be positioned on, in minor units. Selected as a projection so the listing never loads full entities.
+ */
+public record PaymentKey(Long id, Long amount) {
+}
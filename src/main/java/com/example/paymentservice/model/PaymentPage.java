@@ -0,0 +1,20 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.types.PaymentSortType;
+
+import java.util.List;
+
+public record PaymentPage(List<PaymentKey> payments, String nextCursor) {
+
+    /**
+     * Builds a page from a result that was fetched with one row more than {@code limit};
+     * the presence of that extra row is what tells us another page exists.
+     */
+    public static PaymentPage of(List<PaymentKey> fetched, int limit, PaymentSortType sort) {
+        if (fetched.size() <= limit) {
+            return new PaymentPage(fetched, null);
+        }
+        List<PaymentKey> payments = fetched.subList(0, limit);
+        return new PaymentPage(payments, PaymentCursor.after(payments.get(limit - 1), sort).encode());
+    }
+}
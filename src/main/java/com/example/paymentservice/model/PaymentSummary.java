@@ -0,0 +1,23 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.entity.Payment;
+
+import java.math.BigDecimal;
+
+/**
+ * The part of a payment returned by {@code GET /payments/{id}}, small and immutable enough to be
+ * cached. {@code version} is the entity's optimistic lock version and orders summaries of the
+ * same payment.
+ */
+public record PaymentSummary(Long id, BigDecimal cancellationFee, boolean canceled, long version) {
+
+    public static PaymentSummary of(Payment payment) {
+        return new PaymentSummary(payment.getId(), payment.getCancellationFee(),
+                Boolean.TRUE.equals(payment.getIsCanceled()),
+                payment.getVersion() == null ? 0 : payment.getVersion());
+    }
+
+    public boolean isNewerOrSameAs(PaymentSummary other) {
+        return version >= other.version;
+    }
+}
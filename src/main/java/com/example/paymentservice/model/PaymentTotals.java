@@ -0,0 +1,70 @@
+package com.example.paymentservice.model;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Totals of the payments of one currency and type. Amounts and fees are in minor units.
+ */
+public record PaymentTotals(CurrencyType currency, PaymentType type,
+                            long activeCount, long activeAmount, long canceledCount, long cancellationFees) {
+
+    /**
+     * Constructor for the aggregate query, which sums fees as decimals and returns null sums for
+     * empty groups.
+     */
+    public PaymentTotals(CurrencyType currency, PaymentType type,
+                         Long activeCount, Long activeAmount, Long canceledCount, BigDecimal cancellationFees) {
+        this(currency, type,
+                activeCount == null ? 0 : activeCount,
+                activeAmount == null ? 0 : activeAmount,
+                canceledCount == null ? 0 : canceledCount,
+                cancellationFees == null ? 0 : Money.toMinorUnits(cancellationFees));
+    }
+
+    /**
+     * The contribution of a single payment.
+     */
+    public static PaymentTotals of(Payment payment) {
+        if (Boolean.TRUE.equals(payment.getIsCanceled())) {
+            long fee = payment.getCancellationFee() == null ? 0 : Money.toMinorUnits(payment.getCancellationFee());
+            return new PaymentTotals(payment.getCurrency(), payment.getType(), 0, 0, 1, fee);
+        }
+        return new PaymentTotals(payment.getCurrency(), payment.getType(), 1, payment.getAmount(), 0, 0);
+    }
+
+    /**
+     * Adds up totals of the same currency and type.
+     */
+    public static List<PaymentTotals> sumByCurrencyAndType(Stream<PaymentTotals> totals) {
+        return List.copyOf(totals.collect(Collectors.toMap(
+                t -> List.of(t.currency(), t.type()), t -> t, PaymentTotals::plus, LinkedHashMap::new)).values());
+    }
+
+    public PaymentTotals plus(PaymentTotals other) {
+        return new PaymentTotals(currency, type,
+                activeCount + other.activeCount,
+                activeAmount + other.activeAmount,
+                canceledCount + other.canceledCount,
+                cancellationFees + other.cancellationFees);
+    }
+
+    public PaymentTotals minus(PaymentTotals other) {
+        return new PaymentTotals(currency, type,
+                activeCount - other.activeCount,
+                activeAmount - other.activeAmount,
+                canceledCount - other.canceledCount,
+                cancellationFees - other.cancellationFees);
+    }
+
+    public boolean isZero() {
+        return activeCount == 0 && activeAmount == 0 && canceledCount == 0 && cancellationFees == 0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.ArchivedPayment;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-only partition of earlier days, {@code PAYMENTS_ARCHIVE}. Used through
+ * {@link PartitionedPaymentRepository}; rows are only added by {@link #copyFromPayments}.
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.storage", havingValue = "jpa", matchIfMissing = true)
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.IdempotentPayment(p.id, p.requestHash)
+    FROM ArchivedPayment p WHERE p.idempotencyKey = :idempotencyKey
+    """)
+    Optional<IdempotentPayment> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM ArchivedPayment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    AND p.id > :afterId
+    ORDER BY p.id
+    """)
+    List<PaymentKey> findActivePaymentKeysOrderById(@Param("amountMin") long amountMin,
+                                                    @Param("amountMax") long amountMax,
+                                                    @Param("afterId") long afterId,
+                                                    Limit limit);
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM ArchivedPayment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    AND (p.amount > :afterAmount OR (p.amount = :afterAmount AND p.id > :afterId))
+    ORDER BY p.amount, p.id
+    """)
+    List<PaymentKey> findActivePaymentKeysOrderByAmount(@Param("amountMin") long amountMin,
+                                                        @Param("amountMax") long amountMax,
+                                                        @Param("afterAmount") long afterAmount,
+                                                        @Param("afterId") long afterId,
+                                                        Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM ArchivedPayment p
+    WHERE p.isCanceled = false
+    ORDER BY p.id
+    """)
+    Stream<PaymentKey> streamActivePaymentKeys();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+    SELECT p FROM ArchivedPayment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    ORDER BY p.id
+    """)
+    Stream<ArchivedPayment> streamActivePayments(@Param("amountMin") long amountMin,
+                                                 @Param("amountMax") long amountMax);
+
+    /**
+     * Totals per currency and type in one pass over the table.
+     */
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentTotals(p.currency, p.type,
+        SUM(CASE WHEN p.isCanceled = false THEN 1L ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = false THEN p.amount ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = true THEN 1L ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = true THEN p.cancellationFee END))
+    FROM ArchivedPayment p
+    GROUP BY p.currency, p.type
+    """)
+    List<PaymentTotals> aggregateTotals();
+
+    /**
+     * Copies the given rows of {@code PAYMENTS} unchanged, keeping their ids.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+    INSERT INTO PAYMENTS_ARCHIVE (ID, CREATED_AT, AMOUNT, CURRENCY, DEBTOR_IBAN, CREDITOR_IBAN, TYPE, DETAILS,
+                                  CREDITOR_BANK_BIC, IS_CANCELED, CANCELLATION_FEE, IDEMPOTENCY_KEY, REQUEST_HASH,
+                                  VERSION)
+    SELECT ID, CREATED_AT, AMOUNT, CURRENCY, DEBTOR_IBAN, CREDITOR_IBAN, TYPE, DETAILS,
+           CREDITOR_BANK_BIC, IS_CANCELED, CANCELLATION_FEE, IDEMPOTENCY_KEY, REQUEST_HASH, VERSION
+    FROM PAYMENTS WHERE ID IN (:ids)
+    """)
+    int copyFromPayments(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,471 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.journal.PaymentRecords;
+import com.example.paymentservice.journal.PaymentSnapshot;
+import com.example.paymentservice.journal.SegmentedJournal;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentTotals;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps payments in memory, indexed by id, and makes every change durable by appending it to a
+ * {@link SegmentedJournal} before it becomes visible. A snapshot of all payments is written
+ * periodically and on shutdown, after which the journal segments it covers are deleted; at startup
+ * the latest snapshot is loaded and the journal is replayed from the snapshot's position on.
+ * <p>
+ * Writes are serialized by one lock so the journal order is the order in which changes were
+ * applied. Stored payments are never modified in place: every change stores a new copy, so readers
+ * need no lock and callers only ever see copies.
+ * <p>
+ * Changes made inside a Spring transaction are checked and their ids, versions and idempotency keys
+ * reserved right away, but they are only appended and made visible after the transaction has
+ * committed, and dropped if it rolls back. The journal still cannot take part in the commit itself:
+ * a crash between the database commit and the append loses the change while its outbox
+ * notification survives. Changes made outside a transaction are appended immediately. An appended
+ * change survives a crash of the process, and a crash of the machine as well when
+ * {@code payment.journal.force-writes} is set.
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.storage", havingValue = "journal")
+public class JournalPaymentRepository implements PaymentRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalPaymentRepository.class);
+
+    private static final String SNAPSHOT_FILE = "payments.snapshot";
+
+    private final ConcurrentSkipListMap<Long, Payment> payments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> idsByIdempotencyKey = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final PaymentRecords.Handler applier = new Applier();
+    // Held by uncommitted transactions, guarded by writeLock
+    private final Set<Long> reservedIds = new HashSet<>();
+    private final Map<String, Long> reservedIdempotencyKeys = new HashMap<>();
+    private long nextId = 1;
+    private SegmentedJournal journal;
+
+    @Value("${payment.journal.directory}")
+    private Path directory;
+
+    @Value("${payment.journal.segment-size}")
+    private DataSize segmentSize;
+
+    @Value("${payment.journal.force-writes}")
+    private boolean forceWrites;
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            SegmentedJournal.Position from = PaymentSnapshot.read(directory.resolve(SNAPSHOT_FILE), applier)
+                    .map(header -> {
+                        nextId = Math.max(nextId, header.nextId());
+                        return header.position();
+                    })
+                    .orElse(SegmentedJournal.Position.START);
+            journal = new SegmentedJournal(directory, Math.toIntExact(segmentSize.toBytes()), forceWrites);
+            journal.open(from, record -> PaymentRecords.read(record, applier));
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Recovered {} payments from {} in {} ms", payments.size(), directory,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        writeLock.lock();
+        try {
+            journal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all payments to a new snapshot and deletes the journal segments it makes redundant.
+     * Only copying the references to the stored payments happens under the write lock.
+     */
+    @Scheduled(fixedDelayString = "${payment.journal.snapshot-interval}",
+            initialDelayString = "${payment.journal.snapshot-interval}")
+    public synchronized void snapshot() throws IOException {
+        PaymentSnapshot.Header header;
+        List<Payment> copy;
+        writeLock.lock();
+        try {
+            header = new PaymentSnapshot.Header(journal.position(), nextId);
+            copy = new ArrayList<>(payments.values());
+        } finally {
+            writeLock.unlock();
+        }
+        long start = System.nanoTime();
+        PaymentSnapshot.write(directory.resolve(SNAPSHOT_FILE), header, copy);
+        journal.deleteSegmentsBefore(header.position());
+        log.info("Wrote snapshot of {} payments in {} ms", copy.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Assigns an id to new payments and checks the version of existing ones like JPA's optimistic
+     * locking does.
+     *
+     * @throws DataIntegrityViolationException if another payment already has the idempotency key
+     */
+    @Override
+    public <S extends Payment> S save(S payment) {
+        saveAll(List.of(payment));
+        return payment;
+    }
+
+    /**
+     * All payments are checked before any of them is written, so a batch is stored completely or
+     * not at all.
+     */
+    @Override
+    public <S extends Payment> List<S> saveAll(Iterable<S> batch) {
+        List<S> saved = new ArrayList<>();
+        batch.forEach(saved::add);
+        writeLock.lock();
+        try {
+            Map<String, Payment> batchKeys = new HashMap<>();
+            for (S payment : saved) {
+                checkSave(payment, batchKeys);
+            }
+            PendingWrites pending = pendingWrites();
+            List<Payment> copies = new ArrayList<>(saved.size());
+            for (S payment : saved) {
+                Payment stored = payment.getId() == null ? null : payments.get(payment.getId());
+                Payment copy = copyOf(payment);
+                if (copy.getId() == null) {
+                    copy.setId(nextId++);
+                }
+                copy.setVersion(stored == null ? 0L : stored.getVersion() + 1);
+                payment.setId(copy.getId());
+                payment.setVersion(copy.getVersion());
+                copies.add(copy);
+            }
+            for (Payment copy : copies) {
+                write(pending, PaymentRecords.put(copy), () -> applier.put(copy),
+                        copy.getId(), copy.getIdempotencyKey());
+            }
+            return saved;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void checkSave(Payment payment, Map<String, Payment> batchKeys) {
+        Payment stored = payment.getId() == null ? null : payments.get(payment.getId());
+        if ((stored != null && !Objects.equals(stored.getVersion(), payment.getVersion()))
+                || (payment.getId() != null && reservedIds.contains(payment.getId()))) {
+            throw new ObjectOptimisticLockingFailureException(Payment.class, payment.getId());
+        }
+        String idempotencyKey = payment.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return;
+        }
+        Long owner = idsByIdempotencyKey.get(idempotencyKey);
+        if (owner == null) {
+            owner = reservedIdempotencyKeys.get(idempotencyKey);
+        }
+        Payment sameBatch = batchKeys.putIfAbsent(idempotencyKey, payment);
+        if ((owner != null && !owner.equals(payment.getId())) || (sameBatch != null && sameBatch != payment)) {
+            throw new DataIntegrityViolationException("Duplicate idempotency key " + idempotencyKey);
+        }
+    }
+
+    @Override
+    public Optional<Payment> findById(Long id) {
+        return Optional.ofNullable(payments.get(id)).map(JournalPaymentRepository::copyOf);
+    }
+
+    @Override
+    public long count() {
+        return payments.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        writeLock.lock();
+        try {
+            journal.append(PaymentRecords.clear());
+            applier.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<IdempotentPayment> findByIdempotencyKey(String idempotencyKey) {
+        return Optional.ofNullable(idsByIdempotencyKey.get(idempotencyKey))
+                .map(payments::get)
+                .map(payment -> new IdempotentPayment(payment.getId(), payment.getRequestHash()));
+    }
+
+    @Override
+    public int cancelIfUnchanged(Long id, Long version, BigDecimal fee,
+                                 LocalDateTime dayStart, LocalDateTime nextDayStart) {
+        writeLock.lock();
+        try {
+            Payment stored = payments.get(id);
+            if (stored == null
+                    || reservedIds.contains(id)
+                    || !Objects.equals(stored.getVersion(), version)
+                    || Boolean.TRUE.equals(stored.getIsCanceled())
+                    || stored.getCreatedAt().isBefore(dayStart)
+                    || !stored.getCreatedAt().isBefore(nextDayStart)) {
+                return 0;
+            }
+            long feeMinorUnits = Money.toMinorUnits(fee);
+            write(pendingWrites(), PaymentRecords.cancel(id, version + 1, feeMinorUnits),
+                    () -> applier.cancel(id, version + 1, feeMinorUnits), id, null);
+            return 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PaymentKey> findActivePaymentsOrderById(Long amountMin, Long amountMax, Long afterId, Limit limit) {
+        int max = maxResults(limit);
+        List<PaymentKey> result = new ArrayList<>(Math.min(max, 1024));
+        Iterable<Payment> candidates = afterId == null
+                ? payments.values()
+                : payments.tailMap(afterId, false).values();
+        for (Payment payment : candidates) {
+            if (result.size() == max) {
+                break;
+            }
+            if (isActiveInRange(payment, amountMin, amountMax)) {
+                result.add(new PaymentKey(payment.getId(), payment.getAmount()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * There is no amount index here, so every payment is scanned once while the page is collected
+     * in a bounded heap.
+     */
+    @Override
+    public List<PaymentKey> findActivePaymentsOrderByAmount(Long amountMin, Long amountMax,
+                                                            Long afterAmount, Long afterId, Limit limit) {
+        int max = maxResults(limit);
+        Comparator<PaymentKey> byAmountThenId = Comparator.comparing(PaymentKey::amount)
+                .thenComparing(PaymentKey::id);
+        PaymentKey after = afterAmount == null ? null : new PaymentKey(afterId == null ? 0L : afterId, afterAmount);
+        PriorityQueue<PaymentKey> largestFirst = new PriorityQueue<>(byAmountThenId.reversed());
+        for (Payment payment : payments.values()) {
+            if (!isActiveInRange(payment, amountMin, amountMax)) {
+                continue;
+            }
+            PaymentKey key = new PaymentKey(payment.getId(), payment.getAmount());
+            if (after != null && byAmountThenId.compare(key, after) <= 0) {
+                continue;
+            }
+            if (largestFirst.size() < max) {
+                largestFirst.add(key);
+            } else if (max > 0 && byAmountThenId.compare(key, largestFirst.peek()) < 0) {
+                largestFirst.poll();
+                largestFirst.add(key);
+            }
+        }
+        PaymentKey[] sorted = largestFirst.toArray(new PaymentKey[0]);
+        Arrays.sort(sorted, byAmountThenId);
+        return Arrays.asList(sorted);
+    }
+
+    @Override
+    public Stream<PaymentKey> streamActivePaymentKeys() {
+        return payments.values().stream()
+                .filter(payment -> isActiveInRange(payment, null, null))
+                .map(payment -> new PaymentKey(payment.getId(), payment.getAmount()));
+    }
+
+    @Override
+    public Stream<Payment> streamActivePayments(Long amountMin, Long amountMax) {
+        return payments.values().stream()
+                .filter(payment -> isActiveInRange(payment, amountMin, amountMax))
+                .map(JournalPaymentRepository::copyOf);
+    }
+
+    @Override
+    public List<PaymentTotals> aggregateTotals() {
+        return PaymentTotals.sumByCurrencyAndType(payments.values().stream().map(PaymentTotals::of));
+    }
+
+    /**
+     * @return the writes of the current transaction, or null outside of a transaction
+     */
+    private PendingWrites pendingWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Appends and applies a record now, or reserves its payment and idempotency key and leaves the
+     * rest to the commit of the current transaction. Called with the write lock held.
+     */
+    private void write(PendingWrites pending, ByteBuffer record, Runnable apply, Long id, String idempotencyKey) {
+        if (pending == null) {
+            journal.append(record);
+            apply.run();
+            return;
+        }
+        pending.records.add(record);
+        pending.changes.add(apply);
+        if (reservedIds.add(id)) {
+            pending.ids.add(id);
+        }
+        if (idempotencyKey != null && reservedIdempotencyKeys.putIfAbsent(idempotencyKey, id) == null) {
+            pending.idempotencyKeys.add(idempotencyKey);
+        }
+    }
+
+    private static boolean isActiveInRange(Payment payment, Long amountMin, Long amountMax) {
+        return !Boolean.TRUE.equals(payment.getIsCanceled())
+                && (amountMin == null || payment.getAmount() >= amountMin)
+                && (amountMax == null || payment.getAmount() <= amountMax);
+    }
+
+    private static int maxResults(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    private static Payment copyOf(Payment payment) {
+        return Payment.builder()
+                .id(payment.getId())
+                .createdAt(payment.getCreatedAt())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .debtorIban(payment.getDebtorIban())
+                .creditorIban(payment.getCreditorIban())
+                .type(payment.getType())
+                .details(payment.getDetails())
+                .creditorBankBic(payment.getCreditorBankBic())
+                .isCanceled(payment.getIsCanceled())
+                .cancellationFee(payment.getCancellationFee())
+                .idempotencyKey(payment.getIdempotencyKey())
+                .requestHash(payment.getRequestHash())
+                .version(payment.getVersion())
+                .build();
+    }
+
+    /**
+     * Journal records of one transaction, appended in order once it has committed.
+     */
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final List<ByteBuffer> records = new ArrayList<>();
+        private final List<Runnable> changes = new ArrayList<>();
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> idempotencyKeys = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            writeLock.lock();
+            try {
+                records.forEach(journal::append);
+                changes.forEach(Runnable::run);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(JournalPaymentRepository.this);
+            writeLock.lock();
+            try {
+                ids.forEach(reservedIds::remove);
+                idempotencyKeys.forEach(reservedIdempotencyKeys::remove);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies journal records to the in-memory state, both when replaying and right after a new
+     * record has been appended. Called with the write lock held.
+     */
+    private final class Applier implements PaymentRecords.Handler {
+
+        @Override
+        public void put(Payment payment) {
+            Payment previous = payments.put(payment.getId(), payment);
+            if (previous != null && previous.getIdempotencyKey() != null
+                    && !previous.getIdempotencyKey().equals(payment.getIdempotencyKey())) {
+                idsByIdempotencyKey.remove(previous.getIdempotencyKey());
+            }
+            if (payment.getIdempotencyKey() != null) {
+                idsByIdempotencyKey.put(payment.getIdempotencyKey(), payment.getId());
+            }
+            nextId = Math.max(nextId, payment.getId() + 1);
+        }
+
+        @Override
+        public void cancel(long id, long version, long feeMinorUnits) {
+            Payment stored = payments.get(id);
+            if (stored == null) {
+                return;
+            }
+            Payment canceled = copyOf(stored);
+            canceled.setIsCanceled(Boolean.TRUE);
+            canceled.setCancellationFee(Money.toBigDecimal(feeMinorUnits));
+            canceled.setVersion(version);
+            payments.put(id, canceled);
+        }
+
+        @Override
+        public void clear() {
+            payments.clear();
+            idsByIdempotencyKey.clear();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentTotals;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Today's partition, {@code PAYMENTS}. Used through {@link PartitionedPaymentRepository}.
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.storage", havingValue = "jpa", matchIfMissing = true)
+public interface JpaPaymentRepository extends JpaRepository<Payment, Long> {
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.IdempotentPayment(p.id, p.requestHash)
+    FROM Payment p WHERE p.idempotencyKey = :idempotencyKey
+    """)
+    Optional<IdempotentPayment> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+    UPDATE Payment p SET p.isCanceled = true, p.cancellationFee = :fee, p.version = p.version + 1
+    WHERE p.id = :id AND p.version = :version AND p.isCanceled = false
+    AND p.createdAt >= :dayStart AND p.createdAt < :nextDayStart
+    """)
+    int cancelIfUnchanged(@Param("id") Long id,
+                          @Param("version") Long version,
+                          @Param("fee") BigDecimal fee,
+                          @Param("dayStart") LocalDateTime dayStart,
+                          @Param("nextDayStart") LocalDateTime nextDayStart);
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM Payment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    AND p.id > :afterId
+    ORDER BY p.id
+    """)
+    List<PaymentKey> findActivePaymentKeysOrderById(@Param("amountMin") long amountMin,
+                                                    @Param("amountMax") long amountMax,
+                                                    @Param("afterId") long afterId,
+                                                    Limit limit);
+
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM Payment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    AND (p.amount > :afterAmount OR (p.amount = :afterAmount AND p.id > :afterId))
+    ORDER BY p.amount, p.id
+    """)
+    List<PaymentKey> findActivePaymentKeysOrderByAmount(@Param("amountMin") long amountMin,
+                                                        @Param("amountMax") long amountMax,
+                                                        @Param("afterAmount") long afterAmount,
+                                                        @Param("afterId") long afterId,
+                                                        Limit limit);
+
+    /**
+     * Streams the id and amount of every active payment through a database cursor. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentKey(p.id, p.amount) FROM Payment p
+    WHERE p.isCanceled = false
+    ORDER BY p.id
+    """)
+    Stream<PaymentKey> streamActivePaymentKeys();
+
+    /**
+     * Streams every active payment in the amount range (in minor units) through a database cursor. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+    SELECT p FROM Payment p
+    WHERE p.isCanceled = false
+    AND p.amount >= :amountMin AND p.amount <= :amountMax
+    ORDER BY p.id
+    """)
+    Stream<Payment> streamActivePayments(@Param("amountMin") long amountMin,
+                                         @Param("amountMax") long amountMax);
+
+    /**
+     * Totals per currency and type in one pass over the table.
+     */
+    @Query("""
+    SELECT new com.example.paymentservice.model.PaymentTotals(p.currency, p.type,
+        SUM(CASE WHEN p.isCanceled = false THEN 1L ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = false THEN p.amount ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = true THEN 1L ELSE 0L END),
+        SUM(CASE WHEN p.isCanceled = true THEN p.cancellationFee END))
+    FROM Payment p
+    GROUP BY p.currency, p.type
+    """)
+    List<PaymentTotals> aggregateTotals();
+
+    /**
+     * Locks and returns the ids of payments created before {@code before}, so that no cancellation
+     * can slip in while they are moved to the archive.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Payment p WHERE p.createdAt < :before ORDER BY p.id")
+    List<Long> findIdsCreatedBeforeForUpdate(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Payment p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
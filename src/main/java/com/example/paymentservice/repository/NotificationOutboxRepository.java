@@ -0,0 +1,35 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.NotificationOutbox;
+import com.example.paymentservice.types.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+    SELECT o FROM NotificationOutbox o
+    WHERE o.status = :status
+    AND o.nextAttemptAt <= :now
+    ORDER BY o.id
+    """)
+    List<NotificationOutbox> findDueForUpdate(@Param("status") OutboxStatus status,
+                                              @Param("now") LocalDateTime now,
+                                              Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = :status AND o.updatedAt < :before")
+    int deleteByStatusUpdatedBefore(@Param("status") OutboxStatus status,
+                                    @Param("before") LocalDateTime before);
+}
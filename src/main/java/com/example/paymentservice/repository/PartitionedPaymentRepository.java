@@ -0,0 +1,231 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.ArchivedPayment;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentTotals;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Database storage partitioned by creation day. Payments can only be canceled on the day they were
+ * created, so {@code PAYMENTS} holds today's payments and takes all writes, while earlier days are
+ * moved to the read-only {@code PAYMENTS_ARCHIVE} by {@link com.example.paymentservice.service.PaymentArchiver}.
+ * Lookups try today's partition first; listings query both partitions and merge the two sorted
+ * results. The archiver may move a payment between the two queries of one listing, so the merge
+ * keeps only the first of two rows with the same id.
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.storage", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PartitionedPaymentRepository implements PaymentRepository {
+
+    // Both orders end with the id, so two rows compare equal exactly when they are the same payment
+    private static final Comparator<PaymentKey> BY_ID = Comparator.comparing(PaymentKey::id);
+    private static final Comparator<PaymentKey> BY_AMOUNT = Comparator.comparing(PaymentKey::amount)
+            .thenComparing(PaymentKey::id);
+
+    private final JpaPaymentRepository today;
+    private final ArchivedPaymentRepository archive;
+    private final EntityManager entityManager;
+
+    @Override
+    public <S extends Payment> S save(S payment) {
+        return today.save(payment);
+    }
+
+    @Override
+    public <S extends Payment> List<S> saveAll(Iterable<S> payments) {
+        return today.saveAll(payments);
+    }
+
+    @Override
+    public Optional<Payment> findById(Long id) {
+        Optional<Payment> payment = today.findById(id);
+        return payment.isPresent() ? payment : archive.findById(id).map(this::detachedCopy);
+    }
+
+    @Override
+    public long count() {
+        return today.count() + archive.count();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        today.deleteAll();
+        archive.deleteAll();
+    }
+
+    @Override
+    public Optional<IdempotentPayment> findByIdempotencyKey(String idempotencyKey) {
+        Optional<IdempotentPayment> payment = today.findByIdempotencyKey(idempotencyKey);
+        return payment.isPresent() ? payment : archive.findByIdempotencyKey(idempotencyKey);
+    }
+
+    /**
+     * Only today's partition is updated: archived payments were created on an earlier day and could
+     * never match the day range anyway.
+     */
+    @Override
+    public int cancelIfUnchanged(Long id, Long version, BigDecimal fee,
+                                 LocalDateTime dayStart, LocalDateTime nextDayStart) {
+        return today.cancelIfUnchanged(id, version, fee, dayStart, nextDayStart);
+    }
+
+    /**
+     * Missing bounds are replaced by concrete values rather than {@code :param IS NULL OR ...}
+     * conditions, which would keep the database from using the active amount indexes for the
+     * amount range. The same applies to the other amount range queries below.
+     */
+    @Override
+    public List<PaymentKey> findActivePaymentsOrderById(Long amountMin, Long amountMax, Long afterId, Limit limit) {
+        long min = amountMin == null ? 0L : amountMin;
+        long max = amountMax == null ? Long.MAX_VALUE : amountMax;
+        long after = afterId == null ? 0L : afterId;
+        return mergePages(
+                today.findActivePaymentKeysOrderById(min, max, after, limit),
+                archive.findActivePaymentKeysOrderById(min, max, after, limit),
+                BY_ID, limit);
+    }
+
+    @Override
+    public List<PaymentKey> findActivePaymentsOrderByAmount(Long amountMin, Long amountMax,
+                                                            Long afterAmount, Long afterId, Limit limit) {
+        long min = amountMin == null ? 0L : amountMin;
+        long max = amountMax == null ? Long.MAX_VALUE : amountMax;
+        long fromAmount = afterAmount == null ? min : afterAmount;
+        long fromId = afterAmount == null ? 0L : afterId;
+        return mergePages(
+                today.findActivePaymentKeysOrderByAmount(min, max, fromAmount, fromId, limit),
+                archive.findActivePaymentKeysOrderByAmount(min, max, fromAmount, fromId, limit),
+                BY_AMOUNT, limit);
+    }
+
+    @Override
+    public Stream<PaymentKey> streamActivePaymentKeys() {
+        return merge(today.streamActivePaymentKeys(), archive.streamActivePaymentKeys(), BY_ID);
+    }
+
+    @Override
+    public Stream<Payment> streamActivePayments(Long amountMin, Long amountMax) {
+        long min = amountMin == null ? 0L : amountMin;
+        long max = amountMax == null ? Long.MAX_VALUE : amountMax;
+        return merge(
+                today.streamActivePayments(min, max),
+                archive.streamActivePayments(min, max).map(this::detachedCopy),
+                Comparator.comparing(Payment::getId));
+    }
+
+    @Override
+    public List<PaymentTotals> aggregateTotals() {
+        return PaymentTotals.sumByCurrencyAndType(
+                Stream.concat(today.aggregateTotals().stream(), archive.aggregateTotals().stream()));
+    }
+
+    private Payment detachedCopy(ArchivedPayment archived) {
+        Payment payment = archived.toPayment();
+        entityManager.detach(archived);
+        return payment;
+    }
+
+    private static List<PaymentKey> mergePages(List<PaymentKey> first, List<PaymentKey> second,
+                                               Comparator<PaymentKey> order, Limit limit) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        if (first.isEmpty()) {
+            return second;
+        }
+        int size = first.size() + second.size();
+        if (limit.isLimited()) {
+            size = Math.min(size, limit.max());
+        }
+        List<PaymentKey> merged = new ArrayList<>(size);
+        int i = 0;
+        int j = 0;
+        while (merged.size() < size && (i < first.size() || j < second.size())) {
+            int comparison;
+            if (i == first.size()) {
+                comparison = 1;
+            } else if (j == second.size()) {
+                comparison = -1;
+            } else {
+                comparison = order.compare(first.get(i), second.get(j));
+            }
+            if (comparison == 0) {
+                j++;
+            }
+            merged.add(comparison <= 0 ? first.get(i++) : second.get(j++));
+        }
+        return merged;
+    }
+
+    /**
+     * Merges two streams that are each sorted by {@code order} into one sorted stream, dropping the
+     * element of {@code second} when both hold one that compares equal. Closing it closes both.
+     */
+    private static <T> Stream<T> merge(Stream<T> first, Stream<T> second, Comparator<? super T> order) {
+        Iterator<T> left = first.iterator();
+        Iterator<T> right = second.iterator();
+        Iterator<T> merged = new Iterator<>() {
+            private T nextLeft;
+            private T nextRight;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null || left.hasNext() || right.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (nextLeft == null && left.hasNext()) {
+                    nextLeft = left.next();
+                }
+                if (nextRight == null && right.hasNext()) {
+                    nextRight = right.next();
+                }
+                if (nextLeft == null && nextRight == null) {
+                    throw new NoSuchElementException();
+                }
+                T result;
+                int comparison = nextRight == null ? -1 : nextLeft == null ? 1 : order.compare(nextLeft, nextRight);
+                if (comparison == 0) {
+                    nextRight = null;
+                }
+                if (comparison <= 0) {
+                    result = nextLeft;
+                    nextLeft = null;
+                } else {
+                    result = nextRight;
+                    nextRight = null;
+                }
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try (first; second) {
+                        // closes both streams, even if closing the first one fails
+                    }
+                });
+    }
+}
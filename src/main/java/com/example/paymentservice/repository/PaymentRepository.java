@@ -1,23 +1,72 @@
 package com.example.paymentservice.repository;
 
 import com.example.paymentservice.entity.Payment;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-import org.springframework.stereotype.Repository;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentTotals;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
-
-    @Query("""
-    SELECT p FROM Payment p
-    WHERE p.isCanceled = false
-    AND (:amountMin IS NULL OR p.amount >= :amountMin)
-    AND (:amountMax IS NULL OR p.amount <= :amountMax)
-    """)
-    List<Payment> findActivePaymentsWithOptionalMinAmount(@Param("amountMin") BigDecimal amountMin,
-                                                          @Param("amountMax") BigDecimal amountMax);
-}
\ No newline at end of file
+/**
+ * Storage of payments. {@link PartitionedPaymentRepository} keeps them in the database and is the default;
+ * {@link JournalPaymentRepository} keeps them in an append-only memory-mapped journal. The backend
+ * is chosen with {@code payment.storage}. Amounts are in minor units.
+ */
+public interface PaymentRepository {
+
+    <S extends Payment> S save(S payment);
+
+    <S extends Payment> List<S> saveAll(Iterable<S> payments);
+
+    Optional<Payment> findById(Long id);
+
+    long count();
+
+    void deleteAll();
+
+    Optional<IdempotentPayment> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Cancels the payment only if it is still active, was created within {@code [dayStart, nextDayStart)}
+     * and still has the version the caller validated.
+     *
+     * @return the number of updated rows, 0 if any of the conditions no longer holds
+     */
+    int cancelIfUnchanged(Long id, Long version, BigDecimal fee,
+                          LocalDateTime dayStart, LocalDateTime nextDayStart);
+
+    /**
+     * Page of active payments within the amount range ordered by id, starting after {@code afterId}
+     * when one is given.
+     */
+    List<PaymentKey> findActivePaymentsOrderById(Long amountMin, Long amountMax, Long afterId, Limit limit);
+
+    /**
+     * Page of active payments ordered by amount, then id. See {@link #findActivePaymentsOrderById}.
+     */
+    List<PaymentKey> findActivePaymentsOrderByAmount(Long amountMin, Long amountMax,
+                                                     Long afterAmount, Long afterId, Limit limit);
+
+    /**
+     * Streams the id and amount of every active payment ordered by id. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<PaymentKey> streamActivePaymentKeys();
+
+    /**
+     * Streams every active payment in the amount range ordered by id. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<Payment> streamActivePayments(Long amountMin, Long amountMax);
+
+    /**
+     * Totals per currency and type over all payments. Currencies and types without payments may
+     * be left out.
+     */
+    List<PaymentTotals> aggregateTotals();
+}
@@ -0,0 +1,117 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.cache.ActivePaymentIndex;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Loads the {@link ActivePaymentIndex} from the database before the application takes traffic and
+ * periodically compares it with the database. The comparison reads the index and the table at
+ * slightly different moments, so every difference is confirmed against the current row before it
+ * is repaired and counted in {@code payment.index.repairs}.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.active-index.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ActivePaymentIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivePaymentIndexLoader.class);
+
+    private static final long NOT_INDEXED = Long.MIN_VALUE;
+
+    private final ActivePaymentIndex index;
+    private final PaymentRepository repo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        index.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PaymentKey> keys = repo.streamActivePaymentKeys()) {
+                keys.forEach(key -> index.add(key.id(), key.amount()));
+            }
+        });
+        index.markReady();
+        log.info("Loaded {} active payments into the amount index in {} ms (~{} KiB), ready: {}",
+                index.size(), (System.nanoTime() - start) / 1_000_000, index.estimatedMemoryBytes() / 1024,
+                index.isReady());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.active-index.check-interval}",
+            initialDelayString = "${payment.active-index.check-interval}")
+    public void checkConsistency() {
+        long[][] snapshot = index.snapshotById();
+        long[] ids = snapshot[0];
+        long[] amounts = snapshot[1];
+        List<long[]> suspects = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PaymentKey> keys = repo.streamActivePaymentKeys()) {
+                int i = 0;
+                Iterator<PaymentKey> rows = keys.iterator();
+                while (rows.hasNext()) {
+                    PaymentKey row = rows.next();
+                    for (; i < ids.length && ids[i] < row.id(); i++) {
+                        suspects.add(new long[]{ids[i], amounts[i]});
+                    }
+                    if (i < ids.length && ids[i] == row.id()) {
+                        if (amounts[i] != row.amount()) {
+                            suspects.add(new long[]{ids[i], amounts[i]});
+                        }
+                        i++;
+                    } else {
+                        suspects.add(new long[]{row.id(), NOT_INDEXED});
+                    }
+                }
+                for (; i < ids.length; i++) {
+                    suspects.add(new long[]{ids[i], amounts[i]});
+                }
+            }
+        });
+        int repaired = 0;
+        for (long[] suspect : suspects) {
+            if (repair(suspect[0], suspect[1])) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            meterRegistry.counter("payment.index.repairs").increment(repaired);
+            log.warn("Repaired {} entries of the active payment index that differed from the database", repaired);
+        }
+    }
+
+    private boolean repair(long id, long indexedAmount) {
+        Optional<Payment> payment = repo.findById(id);
+        boolean active = payment.isPresent() && !Boolean.TRUE.equals(payment.get().getIsCanceled());
+        boolean changed = false;
+        if (indexedAmount != NOT_INDEXED
+                && (!active || indexedAmount != payment.get().getAmount())) {
+            changed = index.remove(id, indexedAmount);
+        }
+        if (active) {
+            changed |= index.add(id, payment.get().getAmount());
+        }
+        return changed;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.paymentservice.service;
 
-import org.springframework.scheduling.annotation.Async;
-
 public interface CountryResolverService {
 
-    void resolveAndLog(String ip);
+    /**
+     * Counts a request from {@code ip} for the country of that IP in
+     * {@link com.example.paymentservice.cache.CountryTraffic}, or as unknown if it cannot be resolved.
+     */
+    void resolveAndCount(String ip);
 }
@@ -1,39 +1,125 @@
 package com.example.paymentservice.service;
 
+import com.example.paymentservice.cache.CountryTraffic;
+import com.example.paymentservice.cache.LruTtlCache;
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "country.resolver.type", havingValue = "ipapi", matchIfMissing = true)
 public class CountryResolverServiceImpl implements CountryResolverService {
 
     private static final Logger log = LoggerFactory.getLogger(CountryResolverServiceImpl.class);
 
+    private static final String LOOKUP_METRIC = "country.lookup";
+
     private final RestTemplate restTemplate;
+    private final LruTtlCache<String, Optional<String>> countryCache;
+    private final MeterRegistry meterRegistry;
+    private final CountryTraffic countryTraffic;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    @Value("${country.ipapi.url}")
+    private String ipapiUrl;
+
+    @Value("${country.cache.ttl}")
+    private Duration ttl;
+
+    @Value("${country.cache.negative-ttl}")
+    private Duration negativeTtl;
 
-    @Async
+    @Value("${country.ipapi.max-pending-lookups}")
+    private int maxPendingLookups;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<String>>> pendingLookups =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Requests from an IP that is already cached are counted on the calling thread. Otherwise the
+     * request is counted once the lookup for its IP completes: only the first request from an IP
+     * queues a lookup on the {@code @Async} executor, later ones attach to it. Requests that would
+     * need a new lookup while {@code country.ipapi.max-pending-lookups} are already pending are
+     * counted as unknown.
+     */
     @Override
-    public void resolveAndLog(String ip) {
+    public void resolveAndCount(String ip) {
+        Optional<String> cached = countryCache.getIfPresent(ip);
+        if (cached != null) {
+            countryTraffic.record(cached.orElse(null));
+            return;
+        }
+        CompletableFuture<Optional<String>> pending = pendingLookups.get(ip);
+        if (pending == null) {
+            if (pendingLookups.size() >= maxPendingLookups) {
+                countryTraffic.record(null);
+                return;
+            }
+            CompletableFuture<Optional<String>> created = new CompletableFuture<>();
+            pending = pendingLookups.putIfAbsent(ip, created);
+            if (pending == null) {
+                created.thenAccept(country -> countryTraffic.record(country.orElse(null)));
+                submitLookup(ip, created);
+                return;
+            }
+        }
+        pending.thenAccept(country -> countryTraffic.record(country.orElse(null)));
+    }
+
+    private void submitLookup(String ip, CompletableFuture<Optional<String>> pending) {
         try {
-            String url = "https://ipapi.co/" + ip + "/country_name/";
+            applicationTaskExecutor.execute(() -> {
+                try {
+                    pending.complete(countryCache.get(ip, this::lookup,
+                            resolved -> resolved.isPresent() ? ttl : negativeTtl));
+                } catch (RuntimeException e) {
+                    pending.complete(Optional.empty());
+                    throw e;
+                } finally {
+                    pendingLookups.remove(ip, pending);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pendingLookups.remove(ip, pending);
+            pending.complete(Optional.empty());
+        }
+    }
+
+    private Optional<String> lookup(String ip) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String url = ipapiUrl + "/" + ip + "/country_name/";
             ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
             String country = response.getBody();
             if (response.getStatusCode().is2xxSuccessful()
                     && StringUtils.isNotBlank(country)
                     && !country.equals("Undefined")) {
-
-                log.info("Client from country: {}", country);
-            } else {
-                log.warn("Failed to resolve country for IP: {}", ip);
+                outcome = "found";
+                return Optional.of(country);
             }
+            outcome = "unknown";
         } catch (Exception e) {
             log.warn("Error resolving country for IP: {}", ip, e);
+        } finally {
+            sample.stop(meterRegistry.timer(LOOKUP_METRIC, "outcome", outcome));
         }
+        return Optional.empty();
     }
 }
@@ -0,0 +1,49 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logs one summary line of the requests per client country every interval instead of a line per
+ * request.
+ */
+@Component
+@RequiredArgsConstructor
+public class CountryTrafficReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryTrafficReporter.class);
+
+    @Value("${country.traffic.log-interval}")
+    private Duration logInterval;
+
+    private final CountryTraffic countryTraffic;
+
+    private Map<String, Long> reported = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${country.traffic.log-interval}",
+            initialDelayString = "${country.traffic.log-interval}")
+    public void logSummary() {
+        Map<String, Long> current = countryTraffic.snapshot();
+        Map<String, Long> interval = new LinkedHashMap<>();
+        current.forEach((country, requests) -> {
+            long delta = requests - reported.getOrDefault(country, 0L);
+            if (delta > 0) {
+                interval.put(country, delta);
+            }
+        });
+        reported = current;
+        if (!interval.isEmpty()) {
+            log.info("Requests per client country in the last {}: {}", logInterval, interval);
+        }
+    }
+}
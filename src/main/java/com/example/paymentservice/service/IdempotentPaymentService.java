@@ -0,0 +1,93 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.cache.IdempotencyStore;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.IdempotentPayment;
+import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.validation.PaymentValidator;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Creates a payment at most once per idempotency key. Repeats seen by this instance are answered
+ * from the {@link IdempotencyStore}; the unique IDEMPOTENCY_KEY column covers repeats after a
+ * restart, after the key was evicted or on another instance. The payment keeps a hash of the request
+ * that created it, and a repeat whose payment differs is rejected instead of answered with the
+ * original payment.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotentPaymentService {
+
+    private final PaymentService paymentService;
+    private final PaymentRepository repo;
+    private final PaymentValidator paymentValidator;
+    private final IdempotencyStore<Validated<IdempotentPayment>> paymentIdempotencyStore;
+
+    /**
+     * @return the id of the payment created for {@code idempotencyKey}, by this or an earlier request.
+     *         Rejected payments are not remembered, so the request can be corrected and sent again
+     *         with the same key.
+     */
+    public Validated<Long> createPayment(String idempotencyKey, Payment payment) {
+        ValidationResult validation = paymentValidator.validateIdempotencyKey(idempotencyKey);
+        if (!validation.isValid()) {
+            return Validated.rejected(validation);
+        }
+        String requestHash = requestHash(payment);
+        Validated<IdempotentPayment> original = paymentIdempotencyStore.execute(idempotencyKey,
+                () -> repo.findByIdempotencyKey(idempotencyKey)
+                        .map(Validated::of)
+                        .orElseGet(() -> create(idempotencyKey, requestHash, payment)),
+                Validated::isValid);
+        if (!original.isValid()) {
+            return Validated.rejected(original.validation());
+        }
+        validation = paymentValidator.validateIdempotentRepeat(original.value(), requestHash);
+        return validation.isValid() ? Validated.of(original.value().id()) : Validated.rejected(validation);
+    }
+
+    private Validated<IdempotentPayment> create(String idempotencyKey, String requestHash, Payment payment) {
+        payment.setIdempotencyKey(idempotencyKey);
+        payment.setRequestHash(requestHash);
+        try {
+            return paymentService.createPayment(payment).map(id -> new IdempotentPayment(id, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed a payment with the same key first
+            return Validated.of(repo.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e));
+        }
+    }
+
+    /**
+     * Hashes the fields taken from the request, each prefixed with its length (-1 for null) so that
+     * different field values never run together into the same input.
+     */
+    private static String requestHash(Payment payment) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        Object[] fields = {payment.getType(), payment.getAmount(), payment.getCurrency(), payment.getDebtorIban(),
+                payment.getCreditorIban(), payment.getDetails(), payment.getCreditorBankBic()};
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        for (Object field : fields) {
+            byte[] value = field == null ? null : field.toString().getBytes(StandardCharsets.UTF_8);
+            digest.update(length.clear().putInt(value == null ? -1 : value.length).flip());
+            if (value != null) {
+                digest.update(value);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
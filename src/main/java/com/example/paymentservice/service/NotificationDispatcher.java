@@ -0,0 +1,170 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.entity.NotificationLog;
+import com.example.paymentservice.entity.NotificationOutbox;
+import com.example.paymentservice.repository.NotificationOutboxRepository;
+import com.example.paymentservice.types.OutboxStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers outbox entries in batches. A batch is claimed by pushing its next attempt time past
+ * {@code claim-timeout}, sent with bounded parallelism and then recorded in one transaction:
+ * every attempt becomes a {@link NotificationLog} and failed entries are rescheduled with
+ * exponential backoff until {@code max-attempts} is reached. If the process dies after claiming,
+ * the entries simply become due again once the claim expires. At most {@code max-batches-per-poll}
+ * batches are drained per tick so a large backlog does not hold a scheduler thread indefinitely.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+    private static final String DELIVERY_METRIC = "notification.delivery";
+
+    @Value("${notification.dispatcher.batch-size}")
+    private int batchSize;
+
+    @Value("${notification.dispatcher.max-batches-per-poll}")
+    private int maxBatchesPerPoll;
+
+    @Value("${notification.dispatcher.parallelism}")
+    private int parallelism;
+
+    @Value("${notification.dispatcher.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${notification.dispatcher.retry-backoff}")
+    private Duration retryBackoff;
+
+    @Value("${notification.dispatcher.claim-timeout}")
+    private Duration claimTimeout;
+
+    @Value("${notification.outbox.retention}")
+    private Duration retention;
+
+    private final Clock clock;
+    private final RestTemplate restTemplate;
+    private final NotificationOutboxRepository outboxRepo;
+    private final NotificationLogWriter logWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newFixedThreadPool(parallelism),
+                "notification.dispatcher");
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatcher.poll-interval}")
+    public void dispatchPending() {
+        List<NotificationOutbox> batch;
+        int batches = 0;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<CompletableFuture<Boolean>> deliveries = batch.stream()
+                    .map(entry -> CompletableFuture.supplyAsync(() -> send(entry), executor))
+                    .toList();
+            recordResults(batch, deliveries.stream().map(CompletableFuture::join).toList());
+        } while (batch.size() == batchSize && ++batches < maxBatchesPerPoll);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.purge-interval}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now(clock).minus(retention);
+        Integer purged = transactionTemplate.execute(
+                status -> outboxRepo.deleteByStatusUpdatedBefore(OutboxStatus.SENT, before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered notifications from the outbox", purged);
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<NotificationOutbox> batch =
+                    outboxRepo.findDueForUpdate(OutboxStatus.PENDING, now, Limit.of(batchSize));
+            batch.forEach(entry -> entry.setNextAttemptAt(now.plus(claimTimeout)));
+            return batch;
+        });
+    }
+
+    private boolean send(NotificationOutbox entry) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean success;
+        try {
+            restTemplate.getForEntity(entry.getUrl(), String.class);
+            success = true;
+        } catch (RuntimeException e) {
+            log.debug("Notification to {} failed", entry.getUrl(), e);
+            success = false;
+        }
+        sample.stop(meterRegistry.timer(DELIVERY_METRIC,
+                "type", String.valueOf(entry.getPaymentType()),
+                "outcome", success ? "success" : "failure"));
+        return success;
+    }
+
+    private void recordResults(List<NotificationOutbox> batch, List<Boolean> results) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<NotificationLog> logs = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox entry = batch.get(i);
+            boolean success = results.get(i);
+            int attempt = entry.getAttempts() + 1;
+            entry.setAttempts(attempt);
+            entry.setUpdatedAt(now);
+            if (success) {
+                entry.setStatus(OutboxStatus.SENT);
+            } else if (attempt >= maxAttempts) {
+                entry.setStatus(OutboxStatus.FAILED);
+                log.warn("Giving up on notification for payment {} after {} attempts", entry.getPaymentId(), attempt);
+            } else {
+                long factor = 1L << Math.min(attempt - 1, MAX_BACKOFF_EXPONENT);
+                entry.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(factor)));
+            }
+            logs.add(NotificationLog.builder()
+                    .paymentId(entry.getPaymentId())
+                    .url(entry.getUrl())
+                    .success(success)
+                    .attempt(attempt)
+                    .createdAt(now)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.saveAll(batch));
+        logWriter.write(logs);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.entity.NotificationLog;
+import com.example.paymentservice.repository.NotificationLogRepository;
+import com.example.paymentservice.types.BufferOverflowPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers notification logs in a bounded queue and writes them with batched inserts from a single
+ * background thread. A batch is written once {@code batch-size} logs are buffered or {@code linger}
+ * has passed since the first of them arrived, whichever comes first. When the buffer is full,
+ * {@link BufferOverflowPolicy#BLOCK} makes writers wait up to {@code offer-timeout} for space and
+ * {@link BufferOverflowPolicy#DROP} discards the log right away; either way dropped logs are counted.
+ * Whatever is still buffered is written on shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationLogWriter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationLogWriter.class);
+
+    @Value("${notification.log.buffer-capacity}")
+    private int bufferCapacity;
+
+    @Value("${notification.log.batch-size}")
+    private int batchSize;
+
+    @Value("${notification.log.linger}")
+    private Duration linger;
+
+    @Value("${notification.log.overflow-policy}")
+    private BufferOverflowPolicy overflowPolicy;
+
+    @Value("${notification.log.offer-timeout}")
+    private Duration offerTimeout;
+
+    private final NotificationLogRepository logRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private BlockingQueue<NotificationLog> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "notification-log-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join();
+        List<NotificationLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    public void write(List<NotificationLog> logs) {
+        for (NotificationLog entry : logs) {
+            if (!running || !offer(entry)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notification.log.buffered", this, writer -> writer.buffer.size())
+                .register(registry);
+        FunctionCounter.builder("notification.log.written", written, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("notification.log.dropped", dropped, LongAdder::sum)
+                .register(registry);
+    }
+
+    private boolean offer(NotificationLog entry) {
+        if (overflowPolicy == BufferOverflowPolicy.DROP) {
+            return buffer.offer(entry);
+        }
+        try {
+            return buffer.offer(entry, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void flushLoop() {
+        List<NotificationLog> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                NotificationLog first = buffer.poll(linger.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < batchSize) {
+                    if (buffer.drainTo(batch, batchSize - batch.size()) == 0) {
+                        NotificationLog next = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Woken up by stop(): write what was collected, stop() drains the rest of the buffer
+            flush(batch);
+        }
+    }
+
+    private void flush(List<NotificationLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> logRepo.saveAll(batch));
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            dropped.add(batch.size());
+            log.error("Failed to write {} notification logs", batch.size(), e);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.example.paymentservice.entity.NotificationLog;
 import com.example.paymentservice.entity.Payment;
 import org.springframework.scheduling.annotation.Async;
 
+import java.util.List;
+
 public interface NotificationService {
     void notifyExternalService(Payment payment);
+    void notifyExternalServices(List<Payment> payments);
 }
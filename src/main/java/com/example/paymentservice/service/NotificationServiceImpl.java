@@ -1,16 +1,23 @@
 package com.example.paymentservice.service;
 
-import com.example.paymentservice.entity.NotificationLog;
+import com.example.paymentservice.entity.NotificationOutbox;
 import com.example.paymentservice.entity.Payment;
-import com.example.paymentservice.repository.NotificationLogRepository;
+import com.example.paymentservice.repository.NotificationOutboxRepository;
+import com.example.paymentservice.types.OutboxStatus;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records notifications in the outbox as part of the caller's transaction, so a notification
+ * exists if and only if its payment was committed. Delivery is done by {@link NotificationDispatcher}.
+ */
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
@@ -21,37 +28,51 @@ public class NotificationServiceImpl implements NotificationService {
     @Value("${notification.type2.url}")
     private String type2NotificationUrl;
 
-    private final RestTemplate restTemplate;
-    private final NotificationLogRepository repo;
+    private final Clock clock;
+    private final NotificationOutboxRepository outboxRepo;
 
-    @Async
     @Override
+    @Transactional(Transactional.TxType.MANDATORY)
     public void notifyExternalService(Payment payment) {
-        String url = switch (payment.getType()) {
-            case TYPE1 -> type1NotificationUrl;
-            case TYPE2 -> type2NotificationUrl;
-            default -> null;
-        };
-
+        String url = resolveUrl(payment);
         if (url == null) {
             return;
         }
+        outboxRepo.save(buildOutboxEntry(payment, url, LocalDateTime.now(clock)));
+    }
 
-        boolean isSuccessful = true;
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        } catch (RestClientException e) {
-            isSuccessful = false;
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void notifyExternalServices(List<Payment> payments) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<NotificationOutbox> entries = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            String url = resolveUrl(payment);
+            if (url != null) {
+                entries.add(buildOutboxEntry(payment, url, now));
+            }
         }
-        saveNotificationLog(payment.getId(), url, isSuccessful);
+        outboxRepo.saveAll(entries);
     }
 
-    private void saveNotificationLog(Long paymentId, String url, boolean isSuccessful) {
-        repo.save(NotificationLog.builder()
-                .paymentId(paymentId)
-                .url(url)
-                .success(isSuccessful)
-                .build());
+    private String resolveUrl(Payment payment) {
+        return switch (payment.getType()) {
+            case TYPE1 -> type1NotificationUrl;
+            case TYPE2 -> type2NotificationUrl;
+            default -> null;
+        };
     }
 
+    private NotificationOutbox buildOutboxEntry(Payment payment, String url, LocalDateTime now) {
+        return NotificationOutbox.builder()
+                .paymentId(payment.getId())
+                .paymentType(payment.getType())
+                .url(url)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
 }
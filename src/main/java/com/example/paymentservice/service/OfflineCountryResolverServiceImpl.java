@@ -0,0 +1,86 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import com.example.paymentservice.geo.IpAddressParser;
+import com.example.paymentservice.geo.IpRangeDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Resolves countries from a local, memory-mapped IP range database instead of calling ipapi.co.
+ * The file is re-mapped whenever its modification time changes; lookups keep using the previous
+ * mapping until the new one has been opened successfully.
+ */
+@Service
+@ConditionalOnProperty(name = "country.resolver.type", havingValue = "offline")
+public class OfflineCountryResolverServiceImpl implements CountryResolverService {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineCountryResolverServiceImpl.class);
+
+    private static final ThreadLocal<long[]> IPV6_ADDRESS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final Path databaseFile;
+    private final CountryTraffic countryTraffic;
+    private volatile IpRangeDatabase database = IpRangeDatabase.empty();
+    private FileTime loadedModifiedTime;
+
+    public OfflineCountryResolverServiceImpl(@Value("${country.offline.database-file}") Path databaseFile,
+                                             CountryTraffic countryTraffic) {
+        this.databaseFile = databaseFile;
+        this.countryTraffic = countryTraffic;
+        reloadIfChanged();
+    }
+
+    @Override
+    public void resolveAndCount(String ip) {
+        countryTraffic.record(resolve(ip));
+    }
+
+    public String resolve(String ip) {
+        IpRangeDatabase current = database;
+        long ipv4 = IpAddressParser.parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return current.findIpv4(ipv4);
+        }
+        long[] ipv6 = IPV6_ADDRESS.get();
+        if (!IpAddressParser.parseIpv6(ip, ipv6)) {
+            return null;
+        }
+        if (ipv6[0] == 0 && (ipv6[1] >>> 32) == 0xFFFFL) {
+            // IPv4-mapped address (::ffff:a.b.c.d)
+            return current.findIpv4(ipv6[1] & 0xFFFFFFFFL);
+        }
+        return current.findIpv6(ipv6[0], ipv6[1]);
+    }
+
+    @Scheduled(fixedDelayString = "${country.offline.reload-interval}",
+            initialDelayString = "${country.offline.reload-interval}")
+    public synchronized void reloadIfChanged() {
+        try {
+            if (!Files.exists(databaseFile)) {
+                if (loadedModifiedTime == null) {
+                    log.warn("IP range database {} not found, countries will not be resolved", databaseFile);
+                }
+                return;
+            }
+            FileTime modifiedTime = Files.getLastModifiedTime(databaseFile);
+            if (modifiedTime.equals(loadedModifiedTime)) {
+                return;
+            }
+            database = IpRangeDatabase.open(databaseFile);
+            loadedModifiedTime = modifiedTime;
+            log.info("Loaded {} IP ranges from {}", database.rangeCount(), databaseFile);
+        } catch (IOException e) {
+            log.error("Failed to load IP range database {}", databaseFile, e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.ArchivedPaymentRepository;
+import com.example.paymentservice.repository.JpaPaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves payments created before today from {@code PAYMENTS} to {@code PAYMENTS_ARCHIVE}. They can
+ * no longer be canceled, so after the move the table taking inserts and cancellations, and its
+ * indexes, only hold the current day. Each batch is copied and deleted in one transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.storage", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PaymentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchiver.class);
+
+    private final Clock clock;
+    private final JpaPaymentRepository paymentRepo;
+    private final ArchivedPaymentRepository archiveRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.archive.batch-size}")
+    private int batchSize;
+
+    /**
+     * @return the number of payments moved
+     */
+    @Scheduled(fixedDelayString = "${payment.archive.interval}")
+    public long archivePreviousDays() {
+        LocalDateTime todayStart = LocalDate.now(clock).atStartOfDay();
+        long moved = 0;
+        int batch;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = paymentRepo.findIdsCreatedBeforeForUpdate(todayStart, Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archiveRepo.copyFromPayments(ids);
+                return paymentRepo.deleteByIds(ids);
+            });
+            batch = count == null ? 0 : count;
+            moved += batch;
+        } while (batch == batchSize);
+        if (moved > 0) {
+            meterRegistry.counter("payment.archive.moved").increment(moved);
+            log.info("Moved {} payments created before {} to the archive", moved, todayStart.toLocalDate());
+        }
+        return moved;
+    }
+}
@@ -1,13 +1,40 @@
 package com.example.paymentservice.service;
 
 import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.PaymentBatchItem;
+import com.example.paymentservice.model.PaymentPage;
+import com.example.paymentservice.model.PaymentSummary;
+import com.example.paymentservice.model.PaymentTotals;
+import com.example.paymentservice.types.PaymentSortType;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationResult;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Operations that check their input return a {@link Validated} and never throw for a rejected request.
+ */
 public interface PaymentService {
-    Long createPayment(Payment payment);
+    Validated<Long> createPayment(Payment payment);
+
+    /**
+     * Stores the valid items and records the rules each other one broke. The caller checks the batch
+     * size with {@link com.example.paymentservice.validation.PaymentValidator#validateBatchSize(int)}
+     * before building the items.
+     */
+    void createPayments(List<PaymentBatchItem> items);
+
     Payment getPayment(Long id);
-    Payment cancelPayment(Long id);
-    List<Payment> getFilteredPayments(BigDecimal amountMin, BigDecimal amountMax);
+    PaymentSummary getPaymentSummary(Long id);
+    Validated<Payment> cancelPayment(Long id);
+    List<PaymentTotals> getStatistics();
+    Validated<PaymentPage> getFilteredPayments(BigDecimal amountMin, BigDecimal amountMax,
+                                               PaymentSortType sort, String after, int limit);
+
+    /**
+     * @return the violated rules if the query was rejected, in which case nothing was passed to the consumer
+     */
+    ValidationResult exportFilteredPayments(BigDecimal amountMin, BigDecimal amountMax, Consumer<Payment> consumer);
 }
@@ -1,21 +1,44 @@
 package com.example.paymentservice.service;
 
+import com.example.paymentservice.cache.ActivePaymentIndex;
+import com.example.paymentservice.cache.LruTtlCache;
+import com.example.paymentservice.cache.PaymentStatistics;
 import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.model.PaymentBatchItem;
+import com.example.paymentservice.model.PaymentCursor;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentPage;
+import com.example.paymentservice.model.PaymentSummary;
+import com.example.paymentservice.model.PaymentTotals;
 import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.types.PaymentSortType;
 import com.example.paymentservice.validation.PaymentValidator;
-import jakarta.persistence.OptimisticLockException;
+import com.example.paymentservice.validation.Validated;
+import com.example.paymentservice.validation.ValidationResult;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Clock;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,14 +48,67 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository repo;
     private final NotificationService notificationService;
     private final PaymentValidator paymentValidator;
+    private final EntityManager entityManager;
+    private final LruTtlCache<Long, PaymentSummary> paymentCache;
+    private final ActivePaymentIndex activePaymentIndex;
+    private final PaymentStatistics paymentStatistics;
 
-    public Long createPayment(Payment payment) {
-        paymentValidator.validateNewPayment(payment);
+    @Value("${payment.cache.ttl}")
+    private Duration cacheTtl;
+
+    @Value("${payment.cache.canceled-ttl}")
+    private Duration canceledCacheTtl;
+
+    @Value("${payment.cancel.max-attempts}")
+    private int cancelMaxAttempts;
+
+    @Value("${payment.cancel.retry-backoff}")
+    private Duration cancelRetryBackoff;
+
+    @Transactional
+    public Validated<Long> createPayment(Payment payment) {
+        ValidationResult validation = paymentValidator.validateNewPayment(payment);
+        if (!validation.isValid()) {
+            return Validated.rejected(validation);
+        }
         payment.setCreatedAt(LocalDateTime.now(clock));
         payment.setIsCanceled(Boolean.FALSE);
         Payment savedPayment = repo.save(payment);
         notificationService.notifyExternalService(savedPayment);
-        return savedPayment.getId();
+        afterCommit(() -> {
+            activePaymentIndex.add(savedPayment.getId(), savedPayment.getAmount());
+            paymentStatistics.recordCreated(savedPayment.getCurrency(), savedPayment.getType(),
+                    savedPayment.getAmount());
+        });
+        return Validated.of(savedPayment.getId());
+    }
+
+    @Transactional
+    public void createPayments(List<PaymentBatchItem> items) {
+        LocalDateTime createdAt = LocalDateTime.now(clock);
+        List<Payment> payments = new ArrayList<>(items.size());
+        for (PaymentBatchItem item : items) {
+            if (!item.isValid()) {
+                continue;
+            }
+            ValidationResult result = paymentValidator.validateNewPayment(item.getPayment());
+            if (!result.isValid()) {
+                result.getMessages().forEach(item::reject);
+                continue;
+            }
+            item.getPayment().setCreatedAt(createdAt);
+            item.getPayment().setIsCanceled(Boolean.FALSE);
+            payments.add(item.getPayment());
+        }
+        if (payments.isEmpty()) {
+            return;
+        }
+        List<Payment> savedPayments = repo.saveAll(payments);
+        notificationService.notifyExternalServices(savedPayments);
+        afterCommit(() -> savedPayments.forEach(saved -> {
+            activePaymentIndex.add(saved.getId(), saved.getAmount());
+            paymentStatistics.recordCreated(saved.getCurrency(), saved.getType(), saved.getAmount());
+        }));
     }
 
     public Payment getPayment(Long id) {
@@ -40,33 +116,175 @@ public class PaymentServiceImpl implements PaymentService {
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found"));
     }
 
-    @Transactional
-    public Payment cancelPayment(Long id) {
+    /**
+     * Read-through cached view of a payment. Entries are refreshed when the payment is canceled;
+     * canceled payments never change again and are kept for {@code payment.cache.canceled-ttl}.
+     */
+    public PaymentSummary getPaymentSummary(Long id) {
+        return paymentCache.get(id, key -> PaymentSummary.of(getPayment(key)), this::cacheTtl);
+    }
+
+    /**
+     * Cancels with a single guarded UPDATE that only matches the version that was read and
+     * validated, instead of loading the entity into a transaction and flushing it back. If another
+     * request changed the payment in between, it is read and validated again after a random pause of
+     * up to {@code payment.cancel.retry-backoff}, up to {@code payment.cancel.max-attempts} times
+     * before giving up with 409 Conflict. No transaction is held while pausing.
+     */
+    public Validated<Payment> cancelPayment(Long id) {
+        for (int attempt = 1; ; attempt++) {
+            Payment payment = getPayment(id);
+            ValidationResult validation = paymentValidator.validatePaymentToBeCancelled(payment);
+            if (!validation.isValid()) {
+                return Validated.rejected(validation);
+            }
+            Money fee = cancellationFee(payment);
+            BigDecimal feeAmount = fee.toBigDecimal();
+            if (cancelIfUnchanged(payment, feeAmount)) {
+                payment.setIsCanceled(Boolean.TRUE);
+                payment.setCancellationFee(feeAmount);
+                payment.setVersion(payment.getVersion() + 1);
+                afterCommit(() -> {
+                    activePaymentIndex.remove(id, payment.getAmount());
+                    paymentStatistics.recordCanceled(payment.getCurrency(), payment.getType(),
+                            payment.getAmount(), fee.minorUnits());
+                    PaymentSummary summary = PaymentSummary.of(payment);
+                    paymentCache.put(id, summary, cacheTtl(summary));
+                });
+                return Validated.of(payment);
+            }
+            if (attempt >= cancelMaxAttempts || !pauseBeforeRetry()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Payment was modified concurrently. Please retry.");
+            }
+        }
+    }
+
+    /**
+     * Sleeps for a random time so that requests which conflicted once do not collide again in lockstep.
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean pauseBeforeRetry() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(cancelRetryBackoff.toNanos() + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean cancelIfUnchanged(Payment payment, BigDecimal fee) {
+        LocalDateTime dayStart = LocalDate.now(clock).atStartOfDay();
         try {
-            Payment payment = repo.findById(id).orElseThrow(
-                    () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found"));
-            paymentValidator.validatePaymentToBeCancelled(payment);
-            payment.setIsCanceled(Boolean.TRUE);
-            BigDecimal fee = calculateCancellationFee(payment);
-            payment.setCancellationFee(fee);
-            return repo.save(payment);
-        } catch (OptimisticLockException ex) {
-            throw new RuntimeException("Payment was modified concurrently. Please retry.");
+            return repo.cancelIfUnchanged(payment.getId(), payment.getVersion(), fee,
+                    dayStart, dayStart.plusDays(1)) == 1;
+        } catch (ConcurrencyFailureException e) {
+            return false;
+        }
+    }
+
+    private Duration cacheTtl(PaymentSummary summary) {
+        return summary.canceled() ? canceledCacheTtl : cacheTtl;
+    }
+
+    /**
+     * The version is only incremented on flush, and other transactions must not see the new state
+     * before it is committed, so the cache, the index and the statistics are updated once the transaction
+     * has committed.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     public BigDecimal calculateCancellationFee(Payment payment) {
+        return cancellationFee(payment).toBigDecimal();
+    }
+
+    /**
+     * The fee per full hour since creation is a whole number of minor units, so the product is
+     * exact and never needs the HALF_UP rounding the decimal formula applied.
+     */
+    public Money cancellationFee(Payment payment) {
         long hours = Duration.between(payment.getCreatedAt(), LocalDateTime.now(clock)).toHours();
-        BigDecimal coefficient = switch (payment.getType()) {
-            case TYPE1 -> BigDecimal.valueOf(0.05);
-            case TYPE2 -> BigDecimal.valueOf(0.10);
-            case TYPE3 -> BigDecimal.valueOf(0.15);
+        long feePerHour = switch (payment.getType()) {
+            case TYPE1 -> 5;
+            case TYPE2 -> 10;
+            case TYPE3 -> 15;
+        };
+        return Money.perUnit(feePerHour, hours, payment.getCurrency());
+    }
+
+    /**
+     * Served from counters kept up to date on every commit, see {@link PaymentStatistics}.
+     */
+    public List<PaymentTotals> getStatistics() {
+        return paymentStatistics.snapshot();
+    }
+
+    public Validated<PaymentPage> getFilteredPayments(BigDecimal amountMin, BigDecimal amountMax,
+                                                      PaymentSortType sort, String after, int limit) {
+        ValidationResult validation = paymentValidator.validateFilteredPaymentsQuery(amountMin, amountMax);
+        if (!validation.isValid()) {
+            return Validated.rejected(validation);
+        }
+        validation = paymentValidator.validatePageLimit(limit);
+        if (!validation.isValid()) {
+            return Validated.rejected(validation);
+        }
+        PaymentCursor cursor = null;
+        if (after != null) {
+            Validated<PaymentCursor> decoded = PaymentCursor.decode(after, sort);
+            if (!decoded.isValid()) {
+                return Validated.rejected(decoded.validation());
+            }
+            cursor = decoded.value();
+        }
+        Long afterId = cursor == null ? null : cursor.id();
+        Long afterAmount = cursor == null ? null : cursor.amount();
+        Long min = amountMin == null ? null : Money.ceilMinorUnits(amountMin);
+        Long max = amountMax == null ? null : Money.floorMinorUnits(amountMax);
+        if (activePaymentIndex.isReady()) {
+            List<PaymentKey> payments = switch (sort) {
+                case ID -> activePaymentIndex.findOrderById(min, max, afterId, limit + 1);
+                case AMOUNT -> activePaymentIndex.findOrderByAmount(min, max, afterAmount, afterId, limit + 1);
+            };
+            return Validated.of(PaymentPage.of(payments, limit, sort));
+        }
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<PaymentKey> payments = switch (sort) {
+            case ID -> repo.findActivePaymentsOrderById(min, max, afterId, fetchLimit);
+            case AMOUNT -> repo.findActivePaymentsOrderByAmount(min, max, afterAmount, afterId, fetchLimit);
         };
-        return BigDecimal.valueOf(hours).multiply(coefficient).setScale(2, RoundingMode.HALF_UP);
+        return Validated.of(PaymentPage.of(payments, limit, sort));
     }
 
-    public List<Payment> getFilteredPayments(BigDecimal amountMin, BigDecimal amountMax) {
-        paymentValidator.validateFilteredPaymentsQuery(amountMin, amountMax);
-        return repo.findActivePaymentsWithOptionalMinAmount(amountMin, amountMax);
+    @Transactional
+    public ValidationResult exportFilteredPayments(BigDecimal amountMin, BigDecimal amountMax,
+                                                   Consumer<Payment> consumer) {
+        ValidationResult validation = paymentValidator.validateFilteredPaymentsQuery(amountMin, amountMax);
+        if (!validation.isValid()) {
+            return validation;
+        }
+        try (Stream<Payment> payments = repo.streamActivePayments(
+                amountMin == null ? null : Money.ceilMinorUnits(amountMin),
+                amountMax == null ? null : Money.floorMinorUnits(amountMax))) {
+            payments.forEach(payment -> {
+                consumer.accept(payment);
+                // Keep the persistence context from growing with every row read
+                entityManager.detach(payment);
+            });
+        }
+        return ValidationResult.VALID;
     }
 }
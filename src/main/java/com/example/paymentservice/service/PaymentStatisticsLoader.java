@@ -0,0 +1,76 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.cache.PaymentStatistics;
+import com.example.paymentservice.model.PaymentTotals;
+import com.example.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the {@link PaymentStatistics} from one aggregate query before the application takes
+ * traffic and periodically compares them with the database. Payments committed while the query
+ * runs make the two differ briefly, so a difference is only corrected when a second comparison
+ * finds exactly the same difference; corrections are added to the counters rather than
+ * overwriting them, so concurrent updates are kept, and counted in {@code payment.stats.corrections}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentStatisticsLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatisticsLoader.class);
+
+    private final PaymentStatistics statistics;
+    private final PaymentRepository repo;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        repo.aggregateTotals().forEach(statistics::add);
+        log.info("Loaded payment statistics in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.stats.check-interval}",
+            initialDelayString = "${payment.stats.check-interval}")
+    public void checkConsistency() {
+        Map<List<Object>, PaymentTotals> suspects = differences();
+        if (suspects.isEmpty()) {
+            return;
+        }
+        int corrected = 0;
+        for (Map.Entry<List<Object>, PaymentTotals> confirmed : differences().entrySet()) {
+            if (confirmed.getValue().equals(suspects.get(confirmed.getKey()))) {
+                statistics.add(confirmed.getValue());
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            meterRegistry.counter("payment.stats.corrections").increment(corrected);
+            log.warn("Corrected payment statistics of {} currency and type pairs that differed from the database",
+                    corrected);
+        }
+    }
+
+    /**
+     * @return database totals minus counted totals, for every currency and type where they differ
+     */
+    private Map<List<Object>, PaymentTotals> differences() {
+        Map<List<Object>, PaymentTotals> database = repo.aggregateTotals().stream()
+                .collect(Collectors.toMap(t -> List.of(t.currency(), t.type()), Function.identity()));
+        return statistics.snapshot().stream()
+                .map(counted -> database.getOrDefault(List.of(counted.currency(), counted.type()),
+                        new PaymentTotals(counted.currency(), counted.type(), 0, 0, 0, 0)).minus(counted))
+                .filter(difference -> !difference.isZero())
+                .collect(Collectors.toMap(t -> List.of(t.currency(), t.type()), Function.identity()));
+    }
+}
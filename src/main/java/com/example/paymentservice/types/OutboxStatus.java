@@ -0,0 +1,7 @@
+package com.example.paymentservice.types;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.example.paymentservice.types;
+
+public enum PaymentSortType {
+    ID,
+    AMOUNT
+}
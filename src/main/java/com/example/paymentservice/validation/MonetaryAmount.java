@@ -0,0 +1,25 @@
+package com.example.paymentservice.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated amount must have exactly two decimal places and fit into minor units,
+ * see {@link com.example.paymentservice.model.Money}. {@code null} is valid.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = MonetaryAmountValidator.class)
+public @interface MonetaryAmount {
+
+    String message() default "Monetary amount must have exactly 2 decimal places";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,27 @@
+package com.example.paymentservice.validation;
+
+import com.example.paymentservice.model.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.math.BigDecimal;
+
+public class MonetaryAmountValidator implements ConstraintValidator<MonetaryAmount, BigDecimal> {
+
+    private final Counter failures;
+
+    public MonetaryAmountValidator(MeterRegistry meterRegistry) {
+        this.failures = meterRegistry.counter(PaymentValidatorImpl.FAILURES_METRIC, "rule", "amount-scale");
+    }
+
+    @Override
+    public boolean isValid(BigDecimal amount, ConstraintValidatorContext context) {
+        if (amount == null || Money.isExactAmount(amount)) {
+            return true;
+        }
+        failures.increment();
+        return false;
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.paymentservice.validation;
 
 import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.IdempotentPayment;
 
 import java.math.BigDecimal;
 
 public interface PaymentValidator {
-    void validateNewPayment(Payment payment);
+    ValidationResult validateNewPayment(Payment payment);
 
-    void validateFilteredPaymentsQuery(BigDecimal amountMin, BigDecimal amountMax);
+    ValidationResult validateFilteredPaymentsQuery(BigDecimal amountMin, BigDecimal amountMax);
 
-    void validatePaymentToBeCancelled(Payment payment);
+    ValidationResult validatePageLimit(int limit);
+
+    ValidationResult validateBatchSize(int size);
+
+    ValidationResult validateIdempotencyKey(String idempotencyKey);
+
+    ValidationResult validateIdempotentRepeat(IdempotentPayment original, String requestHash);
+
+    ValidationResult validatePaymentToBeCancelled(Payment payment);
 }
@@ -1,76 +1,136 @@
 package com.example.paymentservice.validation;
 
 import com.example.paymentservice.entity.Payment;
-import com.example.paymentservice.exception.BusinessValidationException;
+import com.example.paymentservice.model.IdempotentPayment;
 import com.example.paymentservice.types.CurrencyType;
 import io.micrometer.common.util.StringUtils;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
 
+/**
+ * Checks every rule and returns all violations instead of stopping at the first one. Failures are
+ * reported as results rather than exceptions, so callers can answer a rejected request without
+ * throwing.
+ */
 @Component
-@RequiredArgsConstructor
 public class PaymentValidatorImpl implements PaymentValidator {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    static final String FAILURES_METRIC = "payment.validation.failures";
+
     private final Clock clock;
+    private final Map<ValidationError, Counter> failures = new EnumMap<>(ValidationError.class);
 
-    @Override
-    public void validateNewPayment(Payment payment) {
-        if (payment.getAmount().scale() != 2) {
-            throw new BusinessValidationException("Monetary amount must have exactly 2 decimal places");
+    public PaymentValidatorImpl(Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        for (ValidationError error : ValidationError.values()) {
+            failures.put(error, meterRegistry.counter(FAILURES_METRIC, "rule", error.getCode()));
         }
+    }
+
+    @Override
+    public ValidationResult validateNewPayment(Payment payment) {
+        ValidationResult result = ValidationResult.VALID;
         switch (payment.getType()) {
             case TYPE1 -> {
                 if (!CurrencyType.EUR.equals(payment.getCurrency())) {
-                    throw new BusinessValidationException("Payment of TYPE1 must be EUR");
+                    result = failure(result, ValidationError.TYPE1_CURRENCY);
                 }
                 if (payment.getDetails() == null || payment.getDetails().isEmpty()) {
-                    throw new BusinessValidationException("Details are required for TYPE1 payment");
+                    result = failure(result, ValidationError.TYPE1_DETAILS_REQUIRED);
                 }
                 if (payment.getCreditorBankBic() != null) {
-                    throw new BusinessValidationException("Creditor Bank BIC is not allowed for TYPE1 payments");
+                    result = failure(result, ValidationError.TYPE1_BIC_NOT_ALLOWED);
                 }
             }
             case TYPE2 -> {
                 if (!CurrencyType.USD.equals(payment.getCurrency())) {
-                    throw new BusinessValidationException("Payment of TYPE2 must be USD");
+                    result = failure(result, ValidationError.TYPE2_CURRENCY);
                 }
                 if (payment.getCreditorBankBic() != null) {
-                    throw new BusinessValidationException("Creditor Bank BIC is not allowed for TYPE2 payments");
+                    result = failure(result, ValidationError.TYPE2_BIC_NOT_ALLOWED);
                 }
             }
             case TYPE3 -> {
                 if (StringUtils.isBlank(payment.getCreditorBankBic())) {
-                    throw new BusinessValidationException("Creditor bank BIC is required for TYPE3 payment");
+                    result = failure(result, ValidationError.TYPE3_BIC_REQUIRED);
                 }
                 if (payment.getDetails() != null) {
-                    throw new BusinessValidationException("Details are not allowed for TYPE3 payments");
+                    result = failure(result, ValidationError.TYPE3_DETAILS_NOT_ALLOWED);
                 }
             }
         }
+        return result;
     }
 
     @Override
-    public void validateFilteredPaymentsQuery(BigDecimal amountMin, BigDecimal amountMax) {
+    public ValidationResult validateFilteredPaymentsQuery(BigDecimal amountMin, BigDecimal amountMax) {
+        ValidationResult result = ValidationResult.VALID;
         if ((amountMin != null && amountMin.compareTo(BigDecimal.ZERO) < 0)
                 || (amountMax != null && amountMax.compareTo(BigDecimal.ZERO) < 0)) {
-            throw new BusinessValidationException("Monetary value can not be negative");
+            result = failure(result, ValidationError.NEGATIVE_AMOUNT);
         }
         if (amountMin != null && amountMax != null && amountMax.compareTo(amountMin) < 0) {
-            throw new BusinessValidationException("AmountMax should be larger then or equal to AmountMin");
+            result = failure(result, ValidationError.AMOUNT_RANGE);
+        }
+        return result;
+    }
+
+    @Override
+    public ValidationResult validatePageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return failure(ValidationResult.VALID, ValidationError.PAGE_LIMIT);
+        }
+        return ValidationResult.VALID;
+    }
+
+    @Override
+    public ValidationResult validateBatchSize(int size) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            return failure(ValidationResult.VALID, ValidationError.BATCH_SIZE);
+        }
+        return ValidationResult.VALID;
+    }
+
+    @Override
+    public ValidationResult validateIdempotencyKey(String idempotencyKey) {
+        if (StringUtils.isBlank(idempotencyKey) || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return failure(ValidationResult.VALID, ValidationError.IDEMPOTENCY_KEY);
         }
+        return ValidationResult.VALID;
     }
 
     @Override
-    public void validatePaymentToBeCancelled(Payment payment) {
+    public ValidationResult validateIdempotentRepeat(IdempotentPayment original, String requestHash) {
+        if (original.requestHash() != null && !original.requestHash().equals(requestHash)) {
+            return failure(ValidationResult.VALID, ValidationError.IDEMPOTENCY_KEY_REUSED);
+        }
+        return ValidationResult.VALID;
+    }
+
+    @Override
+    public ValidationResult validatePaymentToBeCancelled(Payment payment) {
         if (Boolean.TRUE.equals(payment.getIsCanceled())){
-            throw new BusinessValidationException("Payment is already canceled");
+            return failure(ValidationResult.VALID, ValidationError.ALREADY_CANCELED);
         }
         if (!LocalDateTime.now(clock).toLocalDate().equals(payment.getCreatedAt().toLocalDate())) {
-            throw new BusinessValidationException("Payment can only be cancel on the same day");
+            return failure(ValidationResult.VALID, ValidationError.CANCEL_SAME_DAY);
         }
+        return ValidationResult.VALID;
+    }
+
+    private ValidationResult failure(ValidationResult result, ValidationError error) {
+        failures.get(error).increment();
+        return result.and(error);
     }
 }
@@ -0,0 +1,36 @@
+package com.example.paymentservice.validation;
+
+import java.util.function.Function;
+
+/**
+ * The value of an operation that checks its input first, or the rules the input violates if the
+ * operation did not run. Lets a rejected request be answered without throwing.
+ */
+public record Validated<T>(T value, ValidationResult validation) {
+
+    public static <T> Validated<T> of(T value) {
+        return new Validated<>(value, ValidationResult.VALID);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code validation} has no errors
+     */
+    public static <T> Validated<T> rejected(ValidationResult validation) {
+        if (validation.isValid()) {
+            throw new IllegalArgumentException("A rejected result needs at least one error");
+        }
+        return new Validated<>(null, validation);
+    }
+
+    public boolean isValid() {
+        return validation.isValid();
+    }
+
+    /**
+     * @return the value, or this rejection with a value of the new type if the input was rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Validated<R> map(Function<? super T, ? extends R> mapper) {
+        return isValid() ? of(mapper.apply(value)) : (Validated<R>) this;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.paymentservice.validation;
+
+/**
+ * Business rules a payment or query can violate. The code tags the
+ * {@code payment.validation.failures} metric, the message is returned to the client.
+ */
+public enum ValidationError {
+
+    TYPE1_CURRENCY("type1-currency", "Payment of TYPE1 must be EUR"),
+    TYPE1_DETAILS_REQUIRED("type1-details-required", "Details are required for TYPE1 payment"),
+    TYPE1_BIC_NOT_ALLOWED("type1-bic-not-allowed", "Creditor Bank BIC is not allowed for TYPE1 payments"),
+    TYPE2_CURRENCY("type2-currency", "Payment of TYPE2 must be USD"),
+    TYPE2_BIC_NOT_ALLOWED("type2-bic-not-allowed", "Creditor Bank BIC is not allowed for TYPE2 payments"),
+    TYPE3_BIC_REQUIRED("type3-bic-required", "Creditor bank BIC is required for TYPE3 payment"),
+    TYPE3_DETAILS_NOT_ALLOWED("type3-details-not-allowed", "Details are not allowed for TYPE3 payments"),
+    NEGATIVE_AMOUNT("negative-amount", "Monetary value can not be negative"),
+    AMOUNT_RANGE("amount-range", "AmountMax should be larger then or equal to AmountMin"),
+    PAGE_LIMIT("page-limit", "Limit must be between 1 and " + PaymentValidatorImpl.MAX_PAGE_SIZE),
+    BATCH_SIZE("batch-size", "Batch must contain between 1 and " + PaymentValidatorImpl.MAX_BATCH_SIZE + " payments"),
+    IDEMPOTENCY_KEY("idempotency-key",
+            "Idempotency key must be between 1 and " + PaymentValidatorImpl.MAX_IDEMPOTENCY_KEY_LENGTH + " characters"),
+    CURSOR("cursor", "Invalid pagination cursor"),
+    CURSOR_SORT("cursor-sort", "Cursor does not match the requested sort order"),
+    IDEMPOTENCY_KEY_REUSED("idempotency-key-reused", "Idempotency key was already used for a different payment"),
+    ALREADY_CANCELED("already-canceled", "Payment is already canceled"),
+    CANCEL_SAME_DAY("cancel-same-day", "Payment can only be cancel on the same day");
+
+    private final String code;
+    private final String message;
+
+    ValidationError(String code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.paymentservice.validation;
+
+import com.example.paymentservice.exception.BusinessValidationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of validating a payment or query: every rule it violates, in the order checked. Results
+ * are immutable, so the valid result and the results with a single error are shared constants and
+ * validating does not allocate unless several rules are violated at once.
+ */
+public final class ValidationResult {
+
+    public static final ValidationResult VALID = new ValidationResult(List.of());
+
+    private static final Map<ValidationError, ValidationResult> SINGLE_ERRORS = new EnumMap<>(ValidationError.class);
+
+    static {
+        for (ValidationError error : ValidationError.values()) {
+            SINGLE_ERRORS.put(error, new ValidationResult(List.of(error)));
+        }
+    }
+
+    private final List<ValidationError> errors;
+    private final List<String> messages;
+
+    private ValidationResult(List<ValidationError> errors) {
+        this.errors = errors;
+        this.messages = errors.stream().map(ValidationError::getMessage).toList();
+    }
+
+    public static ValidationResult of(ValidationError error) {
+        return SINGLE_ERRORS.get(error);
+    }
+
+    /**
+     * @return a result with {@code error} added after the errors of this one
+     */
+    public ValidationResult and(ValidationError error) {
+        if (errors.isEmpty()) {
+            return of(error);
+        }
+        List<ValidationError> combined = new ArrayList<>(errors.size() + 1);
+        combined.addAll(errors);
+        combined.add(error);
+        return new ValidationResult(Collections.unmodifiableList(combined));
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    /**
+     * For callers that cannot return the result, e.g. checks inside a transaction.
+     *
+     * @throws BusinessValidationException with all messages if the result is not valid
+     */
+    public void throwIfInvalid() {
+        if (!errors.isEmpty()) {
+            throw new BusinessValidationException(messages);
+        }
+    }
+}
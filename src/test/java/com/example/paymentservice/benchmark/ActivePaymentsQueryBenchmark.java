@@ -0,0 +1,131 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old entity query of the active payments listing with the id/amount projection, with
+ * and without the IS_CANCELED/AMOUNT index, on a seeded table.
+ *
+ * <p>Run with {@code mvn test -P benchmark -Dtest=ActivePaymentsQueryBenchmark}; the table size is
+ * set with {@code -Dbenchmark.rows=500000}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:query-benchmark",
+        "logging.level.root=WARN"
+})
+class ActivePaymentsQueryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+    private static final int PAGE = 100;
+    private static final long RANGE = 10_000;
+    private static final String INDEX = "IDX_PAYMENTS_ACTIVE_AMOUNT";
+
+    private static final String ENTITY_QUERY_BY_AMOUNT = """
+            SELECT p FROM Payment p
+            WHERE p.isCanceled = false AND p.amount >= :amountMin AND p.amount <= :amountMax
+            ORDER BY p.amount, p.id
+            """;
+    private static final String ENTITY_QUERY_BY_ID = """
+            SELECT p FROM Payment p
+            WHERE p.isCanceled = false AND p.amount >= :amountMin AND p.amount <= :amountMax
+            ORDER BY p.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PaymentRepository repo;
+
+    @Test
+    void compareListingQueries() {
+        seed();
+
+        List<String> results = new ArrayList<>();
+        for (boolean indexed : new boolean[]{false, true}) {
+            jdbcTemplate.execute(indexed
+                    ? "CREATE INDEX " + INDEX + " ON PAYMENTS (IS_CANCELED, AMOUNT, ID)"
+                    : "DROP INDEX IF EXISTS " + INDEX);
+            String suffix = indexed ? " indexed" : " no index";
+            results.add(measure("entity   sort=AMOUNT" + suffix, min -> entityQuery(ENTITY_QUERY_BY_AMOUNT, min)));
+            results.add(measure("keys     sort=AMOUNT" + suffix, min -> () ->
+                    repo.findActivePaymentsOrderByAmount(min, min + RANGE, null, null, Limit.of(PAGE + 1))));
+            results.add(measure("entity   sort=ID    " + suffix, min -> entityQuery(ENTITY_QUERY_BY_ID, min)));
+            results.add(measure("keys     sort=ID    " + suffix, min -> () ->
+                    repo.findActivePaymentsOrderById(min, min + RANGE, null, Limit.of(PAGE + 1))));
+        }
+        System.out.printf("%d rows, page of %d, amount range of %s%n", ROWS, PAGE, Money.toBigDecimal(RANGE));
+        results.forEach(System.out::println);
+    }
+
+    private Supplier<List<?>> entityQuery(String query, long min) {
+        return () -> entityManager.createQuery(query, Payment.class)
+                .setParameter("amountMin", min)
+                .setParameter("amountMax", min + RANGE)
+                .setMaxResults(PAGE + 1)
+                .getResultList();
+    }
+
+    private String measure(String name, Function<Long, Supplier<List<?>>> query) {
+        Random random = new Random(42);
+        for (int i = 0; i < WARMUP; i++) {
+            query.apply(randomMin(random)).get();
+        }
+        LatencyRecorder recorder = new LatencyRecorder();
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            Supplier<List<?>> execution = query.apply(randomMin(random));
+            long start = System.nanoTime();
+            boolean success = !execution.get().isEmpty();
+            recorder.record(System.nanoTime() - start, success);
+        }
+        return recorder.summary(name, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static long randomMin(Random random) {
+        return random.nextInt(990_000);
+    }
+
+    private void seed() {
+        Random random = new Random(7);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= ROWS; id++) {
+            batch.add(new Object[]{
+                    id, createdAt, (long) random.nextInt(1_000_000), "EUR",
+                    "LT1234567890", "LT0987654321", "TYPE1", "Seeded payment " + id, random.nextInt(5) == 0, 0L});
+            if (batch.size() == 10_000 || id == ROWS) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO PAYMENTS (ID, CREATED_AT, AMOUNT, CURRENCY, DEBTOR_IBAN, CREDITOR_IBAN, TYPE,
+                                              DETAILS, IS_CANCELED, VERSION)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE TABLE PAYMENTS");
+    }
+}
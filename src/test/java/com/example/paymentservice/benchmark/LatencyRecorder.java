@@ -0,0 +1,45 @@
+package com.example.paymentservice.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Collects request latencies of one kind of operation and summarizes them as throughput and
+ * percentiles. Safe to share between client threads.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[4096];
+    private int count;
+    private int errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized String summary(String name, Duration duration) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format("%-10s %8.1f ops/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  errors %d/%d",
+                name,
+                count / (duration.toMillis() / 1000.0),
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.95) / 1e6,
+                percentile(sorted, 0.99) / 1e6,
+                errors,
+                count);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, quantile * sorted.length)];
+    }
+}
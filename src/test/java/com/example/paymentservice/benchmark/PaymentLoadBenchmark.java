@@ -0,0 +1,177 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.PaymentserviceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives mixed create/get/list/cancel traffic against the running application while ipapi.co and
+ * the notification endpoints are replaced by local {@link StubServer}s, and reports throughput and
+ * p50/p95/p99 per endpoint.
+ *
+ * <p>Run with {@code mvn test -P benchmark -Dtest=PaymentLoadBenchmark}. Tunable through system
+ * properties:
+ * <ul>
+ *     <li>{@code load.clients} (64), {@code load.warmup} (PT10S), {@code load.duration} (PT30S)</li>
+ *     <li>{@code load.ipapi.latency} (PT0.05S), {@code load.ipapi.failure-rate} (0.0)</li>
+ *     <li>{@code load.notification.latency} (PT0.1S), {@code load.notification.failure-rate} (0.0)</li>
+ * </ul>
+ */
+class PaymentLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final Duration WARMUP = duration("load.warmup", "PT10S");
+    private static final Duration DURATION = duration("load.duration", "PT30S");
+
+    private static final String[] OPERATIONS = {"create", "get", "list", "cancel"};
+    private static final int[] WEIGHTS = {40, 30, 20, 10};
+
+    private static final String PAYMENT = """
+            {
+              "type": "TYPE1",
+              "amount": 10.50,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "load test"
+            }
+            """;
+
+    private final ConcurrentLinkedDeque<String> paymentLocations = new ConcurrentLinkedDeque<>();
+
+    @Test
+    void mixedTraffic() throws Exception {
+        try (StubServer ipapi = new StubServer("Lithuania",
+                duration("load.ipapi.latency", "PT0.05S"), rate("load.ipapi.failure-rate"));
+             StubServer notifications = new StubServer("OK",
+                     duration("load.notification.latency", "PT0.1S"), rate("load.notification.failure-rate"));
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentserviceApplication.class)
+                     .run("--server.port=0",
+                             "--spring.datasource.url=jdbc:h2:mem:load",
+                             "--spring.jpa.show-sql=false",
+                            "--rate-limit.enabled=false",
+                             "--country.ipapi.url=" + ipapi.url(),
+                             "--notification.type1.url=" + notifications.url() + "/type1",
+                             "--notification.type2.url=" + notifications.url() + "/type2",
+                             "--logging.level.root=WARN",
+                             "--logging.level.com.example.paymentservice=ERROR")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port + "/payments");
+
+            drive(base, WARMUP);
+            Map<String, LatencyRecorder> results = drive(base, DURATION);
+
+            System.out.printf("%d clients, %s%n", CLIENTS, DURATION);
+            results.forEach((operation, recorder) -> System.out.println(recorder.summary(operation, DURATION)));
+            System.out.println(ipapi.summary("ipapi"));
+            System.out.println(notifications.summary("notify"));
+        }
+    }
+
+    private Map<String, LatencyRecorder> drive(URI base, Duration duration) throws Exception {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService workers = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        String operation = pickOperation();
+                        String location = switch (operation) {
+                            case "get" -> paymentLocations.peekLast();
+                            case "cancel" -> paymentLocations.pollLast();
+                            default -> null;
+                        };
+                        if (location == null && ("get".equals(operation) || "cancel".equals(operation))) {
+                            // Nothing created yet to read or cancel
+                            operation = "create";
+                        }
+                        long start = System.nanoTime();
+                        boolean success = execute(client, base, operation, location);
+                        recorders.get(operation).record(System.nanoTime() - start, success);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return recorders;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private boolean execute(HttpClient client, URI base, String operation, String location) {
+        HttpRequest.Builder request = switch (operation) {
+            case "create" -> HttpRequest.newBuilder(base)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(PAYMENT));
+            case "get" -> HttpRequest.newBuilder(base.resolve(location)).GET();
+            case "list" -> HttpRequest.newBuilder(URI.create(base + "?limit=20")).GET();
+            case "cancel" -> HttpRequest.newBuilder(base.resolve(location + "/cancel"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+            default -> throw new IllegalArgumentException(operation);
+        };
+        try {
+            HttpResponse<String> response = client.send(
+                    request.header("X-Forwarded-For", randomClientIp()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if ("create".equals(operation) && response.statusCode() == 201) {
+                response.headers().firstValue("Location").ifPresent(paymentLocations::addLast);
+            }
+            return response.statusCode() / 100 == 2;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            roll -= WEIGHTS[i];
+            if (roll < 0) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[0];
+    }
+
+    private static String randomClientIp() {
+        // A bounded set of clients, so the country cache sees both hits and misses
+        return "10.0." + ThreadLocalRandom.current().nextInt(4) + "." + ThreadLocalRandom.current().nextInt(250);
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return Duration.parse(System.getProperty(property, defaultValue));
+    }
+
+    private static double rate(String property) {
+        return Double.parseDouble(System.getProperty(property, "0.0"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.PaymentserviceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and latency of request handling on platform threads, on platform threads with
+ * the asynchronous payment controller ({@code payment.async.enabled}) and on virtual threads. Each
+ * mode starts its own application with an empty database and is driven by a fixed number of
+ * closed-loop clients that create a payment and read it back.
+ *
+ * <p>Run with {@code mvn test -P benchmark}; tune with {@code -Dbenchmark.clients=256},
+ * {@code -Dbenchmark.warmup=PT10S}, {@code -Dbenchmark.duration=PT30S} and
+ * {@code -Dbenchmark.tomcat-threads=200}. With fewer Tomcat threads than clients the synchronous
+ * mode queues requests for a servlet thread, while the asynchronous mode only holds one while a
+ * request is parsed and its response written. Virtual threads are skipped below JDK 21.
+ */
+class ThreadModelBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 256);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+
+    private static final String PAYMENT = """
+            {
+              "type": "TYPE1",
+              "amount": 10.50,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "benchmark"
+            }
+            """;
+
+    @Test
+    void compareThreadModels() throws Exception {
+        LatencyRecorder platform = run("platform", false, false);
+        LatencyRecorder async = run("async", false, true);
+        System.out.println(platform.summary("platform", DURATION));
+        System.out.println(async.summary("async", DURATION));
+
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require JDK 21 or newer");
+        LatencyRecorder virtual = run("virtual", true, false);
+        System.out.println(virtual.summary("virtual", DURATION));
+    }
+
+    private LatencyRecorder run(String mode, boolean virtualThreads, boolean asyncController) throws Exception {
+        // Command line arguments, unlike builder properties, take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentserviceApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--payment.async.enabled=" + asyncController,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                        "--spring.jpa.show-sql=false",
+                        "--rate-limit.enabled=false",
+                        "--country.resolver.type=offline",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.paymentservice=ERROR")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port + "/payments");
+
+            drive(base, WARMUP);
+            return drive(base, DURATION);
+        }
+    }
+
+    private LatencyRecorder drive(URI base, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService workers = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean success = createAndRead(client, base);
+                        recorder.record(System.nanoTime() - start, success);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return recorder;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static boolean createAndRead(HttpClient client, URI base) {
+        try {
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(base)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(PAYMENT))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (created.statusCode() != 201) {
+                return false;
+            }
+            URI location = base.resolve(created.headers().firstValue("Location").orElseThrow());
+            HttpResponse<Void> read = client.send(HttpRequest.newBuilder(location).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return read.statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
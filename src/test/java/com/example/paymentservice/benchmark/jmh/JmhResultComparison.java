@@ -0,0 +1,88 @@
+package com.example.paymentservice.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the score and allocation per operation of two JMH JSON result files side by side.
+ *
+ * <pre>
+ * java ... JmhResultComparison baseline.json candidate.json
+ * </pre>
+ *
+ * A change is only flagged when the score intervals (score ± error) of the two runs do not
+ * overlap; anything else is within run-to-run noise.
+ */
+public final class JmhResultComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(Path.of(args[0]));
+        Map<String, JsonNode> candidate = load(Path.of(args[1]));
+
+        System.out.printf("%-70s %14s %14s %8s %12s %12s%n",
+                "Benchmark", "Baseline", "Candidate", "Change", "Base B/op", "Cand B/op");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f%n", entry.getKey(), "-", score(after));
+                continue;
+            }
+            double change = (score(after) - score(before)) / score(before) * 100;
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12s %12s%s%n",
+                    entry.getKey(), score(before), score(after), change,
+                    allocation(before), allocation(after),
+                    overlaps(before, after) ? "" : "  *");
+        }
+        System.out.println("* score intervals do not overlap");
+    }
+
+    private static Map<String, JsonNode> load(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replaceFirst("^.*\\.(\\w+\\.\\w+)$", "$1"));
+            for (Map.Entry<String, JsonNode> param : result.path("params").properties()) {
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            key.append(" (").append(result.path("primaryMetric").path("scoreUnit").asText()).append(')');
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static boolean overlaps(JsonNode before, JsonNode after) {
+        return Math.abs(score(after) - score(before)) <= error(before) + error(after);
+    }
+
+    private static String allocation(JsonNode result) {
+        JsonNode metric = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+        if (metric.isMissingNode()) {
+            metric = result.path("secondaryMetrics").path("·" + ALLOCATION_METRIC);
+        }
+        return metric.isMissingNode() ? "-" : String.format("%.1f", metric.path("score").asDouble());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.paymentservice.benchmark.jmh;
+
+import com.example.paymentservice.dto.CreatePaymentRequestDto;
+import com.example.paymentservice.dto.PaymentResponseDto;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.mapper.PaymentMapper;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.service.PaymentServiceImpl;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import com.example.paymentservice.validation.PaymentValidatorImpl;
+import com.example.paymentservice.validation.ValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Code that runs on every create, list or cancel request, measured without Spring or the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentHotPathBenchmarks {
+
+    private static final int LIST_SIZE = 100;
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-02T15:30:00Z"), ZoneId.of("UTC"));
+
+    private PaymentValidatorImpl validator;
+    private PaymentServiceImpl service;
+    private PaymentMapper mapper;
+
+    private Payment validPayment;
+    private Payment invalidPayment;
+    private CreatePaymentRequestDto request;
+    private List<PaymentKey> payments;
+
+    @Setup
+    public void setup() {
+        validator = new PaymentValidatorImpl(CLOCK, new SimpleMeterRegistry());
+        service = new PaymentServiceImpl(CLOCK, null, null, validator, null, null, null, null);
+        mapper = new PaymentMapper();
+
+        validPayment = payment(1L, PaymentType.TYPE1, CurrencyType.EUR, "Invoice 42");
+        invalidPayment = payment(2L, PaymentType.TYPE1, CurrencyType.USD, "Invoice 42");
+
+        request = new CreatePaymentRequestDto();
+        request.setAmount(new BigDecimal("125.50"));
+        request.setCurrency(CurrencyType.EUR);
+        request.setDebtorIban("LT1234567890");
+        request.setCreditorIban("LT0987654321");
+        request.setType(PaymentType.TYPE1);
+        request.setDetails("Invoice 42");
+
+        payments = LongStream.rangeClosed(1, LIST_SIZE)
+                .mapToObj(id -> new PaymentKey(id, 12550L))
+                .toList();
+    }
+
+    @Benchmark
+    public ValidationResult validateNewPayment_Valid() {
+        return validator.validateNewPayment(validPayment);
+    }
+
+    @Benchmark
+    public ValidationResult validateNewPayment_Invalid() {
+        return validator.validateNewPayment(invalidPayment);
+    }
+
+    @Benchmark
+    public BigDecimal calculateCancellationFee() {
+        return service.calculateCancellationFee(validPayment);
+    }
+
+    @Benchmark
+    public long cancellationFeeMinorUnits() {
+        return service.cancellationFee(validPayment).minorUnits();
+    }
+
+    @Benchmark
+    public Payment toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public List<PaymentResponseDto> toDtoListIdOnly() {
+        return mapper.toDtoListIdOnly(payments);
+    }
+
+    private static Payment payment(Long id, PaymentType type, CurrencyType currency, String details) {
+        return Payment.builder()
+                .id(id)
+                .createdAt(LocalDateTime.of(2025, 1, 2, 9, 15))
+                .amount(12550L)
+                .currency(currency)
+                .debtorIban("LT1234567890")
+                .creditorIban("LT0987654321")
+                .type(type)
+                .details(details)
+                .isCanceled(false)
+                .build();
+    }
+}
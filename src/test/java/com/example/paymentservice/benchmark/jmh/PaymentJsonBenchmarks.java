@@ -0,0 +1,69 @@
+package com.example.paymentservice.benchmark.jmh;
+
+import com.example.paymentservice.dto.CreatePaymentRequestDto;
+import com.example.paymentservice.dto.PaymentResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response (de)serialization with an ObjectMapper configured like the one Spring MVC
+ * uses. Readers and writers are created once, as the message converters do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentJsonBenchmarks {
+
+    private static final byte[] CREATE_REQUEST = """
+            {
+              "type": "TYPE1",
+              "amount": 125.50,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "Invoice 42"
+            }
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader createRequestReader;
+    private ObjectWriter responseWriter;
+    private PaymentResponseDto response;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        createRequestReader = objectMapper.readerFor(CreatePaymentRequestDto.class);
+        responseWriter = objectMapper.writerFor(PaymentResponseDto.class);
+        response = PaymentResponseDto.builder().id(42L).cancellationFee(new BigDecimal("0.30")).build();
+    }
+
+    @Benchmark
+    public CreatePaymentRequestDto readCreatePaymentRequest() throws IOException {
+        return createRequestReader.readValue(CREATE_REQUEST);
+    }
+
+    @Benchmark
+    public byte[] writePaymentResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
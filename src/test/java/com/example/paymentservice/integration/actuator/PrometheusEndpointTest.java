@@ -0,0 +1,64 @@
+package com.example.paymentservice.integration.actuator;
+
+import com.example.paymentservice.service.CountryResolverService;
+import com.example.paymentservice.service.CountryResolverServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public CountryResolverService countryResolverService() {
+            return Mockito.mock(CountryResolverServiceImpl.class);
+        }
+    }
+
+    @Test
+    void prometheus_AfterTraffic_ExposesApplicationAndInfrastructureMetrics() throws Exception {
+        String invalidPayment = """
+                {
+                  "type": "TYPE1",
+                  "amount": 50.00,
+                  "currency": "USD",
+                  "debtorIban": "LT1234567890",
+                  "creditorIban": "LT0987654321",
+                  "details": "Payment details"
+                }
+                """;
+        mockMvc.perform(post("/payments").contentType(MediaType.APPLICATION_JSON).content(invalidPayment))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/payments"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "payment_validation_failures_total{rule=\"type1-currency\"} 1.0")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{")))
+                .andExpect(content().string(containsString("executor_queued_tasks{")));
+    }
+}
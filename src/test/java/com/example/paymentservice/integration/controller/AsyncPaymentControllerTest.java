@@ -0,0 +1,108 @@
+package com.example.paymentservice.integration.controller;
+
+import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.service.CountryResolverService;
+import com.example.paymentservice.service.CountryResolverServiceImpl;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "payment.async.enabled=true")
+class AsyncPaymentControllerTest {
+
+    private static final String PAYMENT = """
+            {
+              "type": "TYPE1",
+              "amount": 10.50,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "Payment details"
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentRepository repo;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public CountryResolverService countryResolverService() {
+            return Mockito.mock(CountryResolverServiceImpl.class);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void createGetAndCancel_CompleteAsynchronously() throws Exception {
+        MvcResult created = performAsync(post("/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PAYMENT))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        Integer id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+        performAsync(get("/payments/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+        performAsync(post("/payments/" + id + "/cancel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancellationFee").value(0.00));
+        performAsync(get("/payments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void cancelUnknownPayment_ErrorIsMappedAfterAsyncDispatch() throws Exception {
+        performAsync(post("/payments/999999/cancel"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors").exists());
+    }
+
+    @Test
+    void createPayment_InvalidBody_RejectedBeforeReachingExecutor() throws Exception {
+        mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PAYMENT.replace("10.50", "-10")))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
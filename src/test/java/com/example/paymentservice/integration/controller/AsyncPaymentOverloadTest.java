@@ -0,0 +1,106 @@
+package com.example.paymentservice.integration.controller;
+
+import com.example.paymentservice.concurrency.BoundedCallExecutor;
+import com.example.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the asynchronous controller with a single database thread and a single queue slot, and a
+ * service whose calls block until the test releases them. The executor outlives each test, so every
+ * test waits for it to run dry before the next one starts.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(PaymentControllerTest.MockConfig.class)
+@TestPropertySource(properties = {
+        "payment.async.enabled=true",
+        "payment.async.database-threads=1",
+        "payment.async.queue-capacity=1",
+        "payment.async.timeout=PT0.5S"
+})
+class AsyncPaymentOverloadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoundedCallExecutor paymentDatabaseExecutor;
+
+    @MockitoBean
+    private PaymentService service;
+
+    private final Semaphore started = new Semaphore(0);
+    private CountDownLatch release;
+
+    @BeforeEach
+    void blockService() {
+        release = new CountDownLatch(1);
+        when(service.getPaymentSummary(anyLong())).thenAnswer(invocation -> {
+            started.release();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void releaseService() throws Exception {
+        release.countDown();
+        // The only thread runs calls in submission order, so once this one has run all earlier ones have
+        while (true) {
+            try {
+                paymentDatabaseExecutor.submit(() -> null).get();
+                return;
+            } catch (RejectedExecutionException e) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    void getPayment_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        // The first call occupies the only thread, the second the only queue slot
+        mockMvc.perform(get("/payments/1")).andExpect(request().asyncStarted());
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+        mockMvc.perform(get("/payments/2")).andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/payments/3"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errors[0]").value("The service is busy. Please try again later."));
+    }
+
+    @Test
+    void getPayment_CallOutlivesTimeout_ReturnsServiceUnavailable() throws Exception {
+        MvcResult result = mockMvc.perform(get("/payments/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errors[0]").value("The request timed out. Please try again later."));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.paymentservice.integration.controller;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the controller tests against the journal storage instead of the database. Nested test
+ * configurations of the superclass are not detected for subclasses, so the country resolver mock
+ * is imported explicitly.
+ */
+@Import(PaymentControllerTest.MockConfig.class)
+@TestPropertySource(properties = {
+        "payment.storage=journal",
+        "payment.journal.directory=target/journal-test-${random.uuid}",
+        "payment.journal.segment-size=1MB"
+})
+class JournalPaymentControllerTest extends PaymentControllerTest {
+}
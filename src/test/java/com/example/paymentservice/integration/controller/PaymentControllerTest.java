@@ -1,5 +1,6 @@
 package com.example.paymentservice.integration.controller;
 
+import com.example.paymentservice.controller.PaymentController;
 import com.example.paymentservice.repository.PaymentRepository;
 import com.example.paymentservice.service.CountryResolverService;
 import com.example.paymentservice.service.CountryResolverServiceImpl;
@@ -17,9 +18,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,6 +72,49 @@ class PaymentControllerTest {
             .andExpect(jsonPath("$.errors").exists());
     }
 
+    @Test
+    void testCreatePayment_IncorrectAmountScale_ReturnsUnprocessableEntity() throws Exception {
+        String json = """
+            {
+              "type": "TYPE1",
+              "amount": 100.1,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "Payment details"
+            }
+            """;
+
+        mockMvc.perform(post("/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.errors[0]").value("Monetary amount must have exactly 2 decimal places"));
+    }
+
+    @Test
+    void testCreatePayment_SeveralBusinessRulesBroken_ReturnsAllErrors() throws Exception {
+        String json = """
+            {
+              "type": "TYPE1",
+              "amount": 100.00,
+              "currency": "USD",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "creditorBankBic": "BANKLT2X"
+            }
+            """;
+
+        mockMvc.perform(post("/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.errors.length()").value(3))
+            .andExpect(jsonPath("$.errors[0]").value("Payment of TYPE1 must be EUR"))
+            .andExpect(jsonPath("$.errors[1]").value("Details are required for TYPE1 payment"))
+            .andExpect(jsonPath("$.errors[2]").value("Creditor Bank BIC is not allowed for TYPE1 payments"));
+    }
+
     @Test
     void testCreatePayment_Success() throws Exception {
         String json = """
@@ -87,6 +136,130 @@ class PaymentControllerTest {
             .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    void testCreatePayment_RepeatedIdempotencyKey_ReturnsOriginalPayment() throws Exception {
+        String json = """
+            {
+              "type": "TYPE1",
+              "amount": 100.00,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "Payment details"
+            }
+            """;
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(post("/payments")
+                        .header(PaymentController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult repeated = mockMvc.perform(post("/payments")
+                        .header(PaymentController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), repeated.getResponse().getContentAsString());
+        assertEquals(first.getResponse().getHeader("Location"), repeated.getResponse().getHeader("Location"));
+        assertEquals(1, repo.count());
+    }
+
+    @Test
+    void testCreatePayment_IdempotencyKeyReusedForDifferentPayment_ReturnsUnprocessableEntity() throws Exception {
+        String json = """
+            {
+              "type": "TYPE1",
+              "amount": 100.00,
+              "currency": "EUR",
+              "debtorIban": "LT1234567890",
+              "creditorIban": "LT0987654321",
+              "details": "Payment details"
+            }
+            """;
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/payments")
+                        .header(PaymentController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/payments")
+                        .header(PaymentController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.replace("100.00", "200.00")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0]").value("Idempotency key was already used for a different payment"));
+
+        assertEquals(1, repo.count());
+    }
+
+    @Test
+    void testCreatePaymentsBatch_ReportsErrorsPerItem() throws Exception {
+        String json = """
+            [
+              {
+                "type": "TYPE1",
+                "amount": 100.00,
+                "currency": "EUR",
+                "debtorIban": "LT1234567890",
+                "creditorIban": "LT0987654321",
+                "details": "Payment details"
+              },
+              {
+                "type": "TYPE2",
+                "amount": 50.00,
+                "currency": "USD",
+                "creditorIban": "LT0987654321"
+              },
+              {
+                "type": "TYPE2",
+                "amount": 50.00,
+                "currency": "EUR",
+                "debtorIban": "LT1234567890",
+                "creditorIban": "LT0987654321"
+              }
+            ]
+            """;
+
+        mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].errors").doesNotExist())
+                .andExpect(jsonPath("$[1].id").doesNotExist())
+                .andExpect(jsonPath("$[1].errors[0]").value("Debtor IBAN is a required field"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].errors[0]").value("Payment of TYPE2 must be USD"));
+
+        mockMvc.perform(get("/payments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testCreatePaymentsBatch_NullItemReportedAndOversizedBatchRejected() throws Exception {
+        mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].errors[0]").value("Payment is a required field"));
+
+        mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + "null,".repeat(1000) + "null]"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0]").value("Batch must contain between 1 and 1000 payments"));
+
+        assertEquals(0, repo.count());
+    }
+
     @Test
     void testGetAllActivePayments_Success() throws Exception {
         insertInitialValues();
@@ -105,6 +278,65 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testGetAllActivePaymentsPaginated_Success() throws Exception {
+        HashMap<String, Integer> paymentIds = insertInitialValues();
+
+        MvcResult firstPage = mockMvc.perform(get("/payments")
+                        .param("sort", "AMOUNT")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(paymentIds.get("first")))
+                .andExpect(jsonPath("$[1].id").value(paymentIds.get("second")))
+                .andExpect(header().exists(PaymentController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        mockMvc.perform(get("/payments")
+                        .param("sort", "AMOUNT")
+                        .param("limit", "2")
+                        .param("after", firstPage.getResponse().getHeader(PaymentController.NEXT_CURSOR_HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(paymentIds.get("third")))
+                .andExpect(header().doesNotExist(PaymentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testGetAllActivePaymentsInvalidCursor_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(get("/payments")
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0]").value("Invalid pagination cursor"));
+    }
+
+    @Test
+    void testExportActivePaymentsWithQuery_Success() throws Exception {
+        HashMap<String, Integer> paymentIds = insertInitialValues();
+
+        MvcResult result = mockMvc.perform(get("/payments/export")
+                        .param("amountMin", "30"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(paymentIds.get("second"), JsonPath.read(lines[0], "$.id"));
+        assertEquals("USD", JsonPath.read(lines[0], "$.currency"));
+        assertEquals(paymentIds.get("third"), JsonPath.read(lines[1], "$.id"));
+        assertEquals("NORZNOZZ77", JsonPath.read(lines[1], "$.creditorBankBic"));
+    }
+
+    @Test
+    void testExportActivePaymentsInvalidQuery_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(get("/payments/export")
+                        .param("amountMin", "100")
+                        .param("amountMax", "30"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0]").value("AmountMax should be larger then or equal to AmountMin"));
+    }
+
     @Test
     void testCancelPayment_Success() throws Exception {
         String json = """
@@ -142,6 +374,19 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testCancelPaymentTwice_ReturnsUnprocessableEntity() throws Exception {
+        HashMap<String, Integer> paymentIds = insertInitialValues();
+        mockMvc.perform(post("/payments/" + paymentIds.get("first") + "/cancel"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/payments/" + paymentIds.get("first") + "/cancel"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0]").value("Payment is already canceled"));
+        mockMvc.perform(get("/payments/" + paymentIds.get("first")))
+                .andExpect(jsonPath("$.cancellationFee").value(0.00));
+    }
+
     @Test
     void testGetPayment_Success() throws Exception {
         String json = """
@@ -185,6 +430,27 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.cancellationFee").value(0.00));
     }
 
+    @Test
+    void testGetStatistics_CountsCreatedAndCanceledPayments() throws Exception {
+        String before = mockMvc.perform(get("/payments/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        HashMap<String, Integer> paymentIds = insertInitialValues();
+        mockMvc.perform(post("/payments/" + paymentIds.get("first") + "/cancel"))
+                .andExpect(status().isOk());
+
+        String after = mockMvc.perform(get("/payments/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String eurType1 = "$[?(@.currency == 'EUR' && @.type == 'TYPE1')]";
+        String usdType2 = "$[?(@.currency == 'USD' && @.type == 'TYPE2')]";
+        assertEquals(statistic(before, eurType1, "activeCount"), statistic(after, eurType1, "activeCount"));
+        assertEquals(statistic(before, eurType1, "canceledCount") + 1, statistic(after, eurType1, "canceledCount"));
+        assertEquals(statistic(before, usdType2, "activeCount") + 1, statistic(after, usdType2, "activeCount"));
+        assertEquals(statistic(before, usdType2, "activeAmount") + 50, statistic(after, usdType2, "activeAmount"));
+    }
+
 // ---------------------------------------------------------------------------------------------------------------------
 // Utility functions
 // ---------------------------------------------------------------------------------------------------------------------
@@ -199,6 +465,11 @@ class PaymentControllerTest {
         return JsonPath.read(responseBody, "$.id");
     }
 
+    double statistic(String statsJson, String filter, String field) {
+        List<Number> values = JsonPath.read(statsJson, filter + "." + field);
+        return values.get(0).doubleValue();
+    }
+
     HashMap<String,Integer> insertInitialValues() throws Exception {
         String firstJson = """
             {
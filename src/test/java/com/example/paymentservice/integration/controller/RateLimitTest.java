@@ -0,0 +1,62 @@
+package com.example.paymentservice.integration.controller;
+
+import com.example.paymentservice.service.CountryResolverService;
+import com.example.paymentservice.service.CountryResolverServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "rate-limit.endpoints.get.capacity=2",
+        "rate-limit.endpoints.get.refill-per-second=0.1"
+})
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public CountryResolverService countryResolverService() {
+            return Mockito.mock(CountryResolverServiceImpl.class);
+        }
+    }
+
+    @Test
+    void getPayment_OverLimit_ReturnsTooManyRequestsWithRetryAfterRegardlessOfForwardedHeader() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/payments/999999").with(remoteAddress("203.0.113.7")))
+                    .andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(get("/payments/999999").with(remoteAddress("203.0.113.7"))
+                        .header("X-Forwarded-For", "198.51.100.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.errors[0]").value("Too many requests. Please try again later."));
+        mockMvc.perform(get("/payments/999999").with(remoteAddress("203.0.113.8")))
+                .andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.paymentservice.integration.http;
+
+import com.example.paymentservice.concurrency.ConcurrencyLimiter;
+import com.example.paymentservice.config.OutboundHttpProperties;
+import com.example.paymentservice.config.RestTemplateConfig;
+import com.example.paymentservice.http.CircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OutboundHttpClientTest {
+
+    private static final int SLOW_RESPONSE = -1;
+
+    private final Queue<Integer> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private String url;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            Integer status = responses.poll();
+            if (status == null) {
+                status = 200;
+            } else if (status == SLOW_RESPONSE) {
+                sleep(Duration.ofSeconds(2));
+                status = 200;
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/notify";
+
+        OutboundHttpProperties properties = new OutboundHttpProperties(
+                Duration.ofSeconds(1), Duration.ofMillis(300), Duration.ofSeconds(1), Duration.ofSeconds(30), 10, 5,
+                new OutboundHttpProperties.Retry(3, Duration.ofMillis(10), Duration.ofMillis(20)),
+                new OutboundHttpProperties.CircuitBreaker(3, Duration.ofMinutes(1)),
+                Map.of());
+        RestTemplateConfig config = new RestTemplateConfig();
+        connectionManager = config.outboundConnectionManager(properties);
+        httpClient = config.outboundHttpClient(connectionManager, properties);
+        restTemplate = config.restTemplate(new RestTemplateBuilder(), httpClient, properties, meterRegistry,
+                new ConcurrencyLimiter("outbound-http", 10, Duration.ofSeconds(1)));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void getForEntity_TransientServerErrors_RetriedUntilSuccess() {
+        responses.add(503);
+        responses.add(503);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(3, requests.get());
+        assertEquals(2, meterRegistry.get("http.client.retries").tag("host", "localhost").counter().count());
+    }
+
+    @Test
+    void getForEntity_RepeatedFailures_OpenCircuitRejectsWithoutCalling() {
+        responses.add(500);
+        responses.add(500);
+        responses.add(500);
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForEntity(url, String.class));
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForEntity(url, String.class));
+
+        assertEquals(3, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN.ordinal(),
+                meterRegistry.get("http.client.circuit.state").tag("host", "localhost").gauge().value());
+        assertEquals(1, meterRegistry.get("http.client.circuit.rejected").tag("host", "localhost").counter().count());
+    }
+
+    @Test
+    void getForEntity_SlowServer_ReadTimeoutEnforced() {
+        responses.add(SLOW_RESPONSE);
+        responses.add(SLOW_RESPONSE);
+        responses.add(SLOW_RESPONSE);
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForEntity(url, String.class));
+
+        assertEquals(3, requests.get());
+        assertEquals(true, Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.paymentservice.integration.repository;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.service.CountryResolverService;
+import com.example.paymentservice.service.CountryResolverServiceImpl;
+import com.example.paymentservice.service.PaymentArchiver;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class PaymentArchiverTest {
+
+    @Autowired
+    private PaymentRepository repo;
+
+    @Autowired
+    private PaymentArchiver archiver;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public CountryResolverService countryResolverService() {
+            return Mockito.mock(CountryResolverServiceImpl.class);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void archivePreviousDays_MovesOlderPaymentsAndQueriesSpanBothPartitions() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        Long oldExpensive = repo.save(payment(yesterday, 90000L, false, "old-1")).getId();
+        repo.save(payment(yesterday, 10000L, true, "old-2"));
+        Long todayCheap = repo.save(payment(LocalDateTime.now(), 20000L, false, "new-1")).getId();
+
+        assertEquals(2, archiver.archivePreviousDays());
+        assertEquals(0, archiver.archivePreviousDays());
+
+        assertEquals(3, repo.count());
+        assertEquals(90000L, repo.findById(oldExpensive).orElseThrow().getAmount());
+        assertEquals(oldExpensive, repo.findByIdempotencyKey("old-1").orElseThrow().id());
+        assertEquals(List.of(new PaymentKey(oldExpensive, 90000L), new PaymentKey(todayCheap, 20000L)),
+                repo.findActivePaymentsOrderById(null, null, null, Limit.of(10)));
+        assertEquals(List.of(new PaymentKey(todayCheap, 20000L)),
+                repo.findActivePaymentsOrderByAmount(null, null, null, null, Limit.of(1)));
+        assertEquals(List.of(new PaymentKey(oldExpensive, 90000L)),
+                repo.findActivePaymentsOrderByAmount(null, null, 20000L, todayCheap, Limit.of(10)));
+        List<Long> streamed = transactionTemplate.execute(status -> {
+            try (Stream<Payment> payments = repo.streamActivePayments(null, null)) {
+                return payments.map(Payment::getId).toList();
+            }
+        });
+        assertEquals(List.of(oldExpensive, todayCheap), streamed);
+        LocalDateTime dayStart = LocalDate.now().minusDays(1).atStartOfDay();
+        assertEquals(0, repo.cancelIfUnchanged(oldExpensive, 0L, new BigDecimal("0.05"),
+                dayStart, dayStart.plusDays(1)));
+    }
+
+    private static Payment payment(LocalDateTime createdAt, long amount, boolean canceled, String idempotencyKey) {
+        return Payment.builder()
+                .createdAt(createdAt)
+                .amount(amount)
+                .currency(CurrencyType.EUR)
+                .debtorIban("LT123456789012345678")
+                .creditorIban("LT876543210987654321")
+                .type(PaymentType.TYPE1)
+                .isCanceled(canceled)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
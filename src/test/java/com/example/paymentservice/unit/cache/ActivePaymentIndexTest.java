@@ -0,0 +1,49 @@
+package com.example.paymentservice.unit.cache;
+
+import com.example.paymentservice.cache.ActivePaymentIndex;
+import com.example.paymentservice.model.PaymentKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivePaymentIndexTest {
+
+    @Test
+    void find_AmountRange_OrderedByAmountAndById() {
+        ActivePaymentIndex index = new ActivePaymentIndex(true);
+        index.add(4L, 1000L);
+        index.add(1L, 5000L);
+        index.add(3L, 1000L);
+        index.add(2L, 2000L);
+        index.add(5L, 500L);
+        index.remove(2L, 2000L);
+
+        List<PaymentKey> byAmount = index.findOrderByAmount(1000L, 5000L, 1000L, 3L, 10);
+        List<PaymentKey> byId = index.findOrderById(1000L, null, 1L, 2);
+
+        assertEquals(List.of(new PaymentKey(4L, 1000L), new PaymentKey(1L, 5000L)), byAmount);
+        assertEquals(List.of(new PaymentKey(3L, 1000L), new PaymentKey(4L, 1000L)), byId);
+    }
+
+    @Test
+    void isReady_OnlyWhenEnabledAndLoaded() {
+        ActivePaymentIndex disabled = new ActivePaymentIndex(false);
+        ActivePaymentIndex enabled = new ActivePaymentIndex(true);
+        disabled.markReady();
+
+        disabled.add(1L, 1000L);
+        enabled.add(1L, 1000L);
+
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.size());
+        assertFalse(enabled.isReady());
+        enabled.markReady();
+        assertTrue(enabled.isReady());
+        enabled.clear();
+        assertFalse(enabled.isReady());
+    }
+}
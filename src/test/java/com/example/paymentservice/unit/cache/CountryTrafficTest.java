@@ -0,0 +1,27 @@
+package com.example.paymentservice.unit.cache;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CountryTrafficTest {
+
+    @Test
+    void snapshot_MostRequestsFirst_UnresolvedCountedAsUnknown() {
+        CountryTraffic traffic = new CountryTraffic();
+        traffic.record("Latvia");
+        traffic.record("Lithuania");
+        traffic.record("Lithuania");
+        traffic.record(null);
+
+        Map<String, Long> snapshot = traffic.snapshot();
+
+        assertEquals(List.of("Lithuania", "Latvia", CountryTraffic.UNKNOWN), List.copyOf(snapshot.keySet()));
+        assertEquals(2L, snapshot.get("Lithuania"));
+        assertEquals(1L, snapshot.get(CountryTraffic.UNKNOWN));
+    }
+}
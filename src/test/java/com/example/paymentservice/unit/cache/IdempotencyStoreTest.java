@@ -0,0 +1,83 @@
+package com.example.paymentservice.unit.cache;
+
+import com.example.paymentservice.cache.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void execute_ConcurrentSameKey_OperationRunsOnce() throws Exception {
+        IdempotencyStore<Long> store = new IdempotencyStore<>(4, 100, TTL, ticker::get);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(() -> store.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return (long) runs.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Long> second = executor.submit(() -> store.execute("key", () -> (long) runs.incrementAndGet()));
+            release.countDown();
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1L, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+            assertEquals(1, store.replayCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_FailedOrExpired_OperationRunsAgain() {
+        IdempotencyStore<Long> store = new IdempotencyStore<>(4, 100, TTL, ticker::get);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key", () -> {
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(1L, store.execute("key", () -> 1L));
+        assertEquals(1L, store.execute("key", () -> 2L));
+        ticker.addAndGet(TTL.toNanos());
+
+        assertEquals(3L, store.execute("key", () -> 3L));
+    }
+
+    @Test
+    void execute_ResultNotRemembered_OperationRunsAgain() {
+        IdempotencyStore<Long> store = new IdempotencyStore<>(4, 100, TTL, ticker::get);
+
+        assertEquals(-1L, store.execute("key", () -> -1L, value -> value > 0));
+        assertEquals(0, store.size());
+        assertEquals(2L, store.execute("key", () -> 2L, value -> value > 0));
+
+        assertEquals(2L, store.execute("key", () -> 3L, value -> value > 0));
+        assertEquals(1, store.replayCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.paymentservice.unit.cache;
+
+import com.example.paymentservice.cache.LruTtlCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LruTtlCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void get_CachedValue_LoaderCalledOnce() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>(10, ticker::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> "A" + loads.incrementAndGet(), value -> TTL);
+        String value = cache.get("a", key -> "A" + loads.incrementAndGet(), value2 -> TTL);
+
+        assertEquals("A1", value);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_ExpiredValue_Reloaded() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>(10, ticker::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> "A" + loads.incrementAndGet(), value -> TTL);
+        ticker.addAndGet(TTL.toNanos());
+        String value = cache.get("a", key -> "A" + loads.incrementAndGet(), value2 -> TTL);
+
+        assertEquals("A2", value);
+    }
+
+    @Test
+    void put_ReplacementRejected_KeepsNewerValue() {
+        LruTtlCache<String, Integer> cache = new LruTtlCache<>(10, ticker::get,
+                (current, candidate) -> candidate >= current);
+        cache.put("a", 2, TTL);
+
+        cache.put("a", 1, TTL);
+        Integer loaded = cache.get("b", key -> 1, value -> TTL);
+
+        assertEquals(2, cache.getIfPresent("a"));
+        assertEquals(1, loaded);
+    }
+
+    @Test
+    void put_OverMaximumSize_EvictsLeastRecentlyUsed() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>(2, ticker::get);
+        cache.put("a", "A", TTL);
+        cache.put("b", "B", TTL);
+        cache.getIfPresent("a");
+
+        cache.put("c", "C", TTL);
+
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("A", cache.getIfPresent("a"));
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_ConcurrentMisses_SingleLoad() throws Exception {
+        LruTtlCache<String, String> cache = new LruTtlCache<>(10, ticker::get);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("a", key -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "A";
+            }, value -> TTL));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(() -> cache.get("a", key -> {
+                loads.incrementAndGet();
+                return "other";
+            }, value -> TTL));
+            releaseLoader.countDown();
+
+            assertEquals("A", first.get(5, TimeUnit.SECONDS));
+            assertEquals("A", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.paymentservice.unit.cache;
+
+import com.example.paymentservice.cache.PaymentStatistics;
+import com.example.paymentservice.model.PaymentTotals;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentStatisticsTest {
+
+    @Test
+    void snapshot_SeededAndUpdated_TotalsPerCurrencyAndType() {
+        PaymentStatistics statistics = new PaymentStatistics();
+        statistics.add(new PaymentTotals(CurrencyType.EUR, PaymentType.TYPE1, 2, 30000, 1, 15));
+
+        statistics.recordCreated(CurrencyType.EUR, PaymentType.TYPE1, 5000);
+        statistics.recordCanceled(CurrencyType.EUR, PaymentType.TYPE1, 10000, 20);
+        statistics.recordCreated(CurrencyType.USD, PaymentType.TYPE2, 700);
+
+        List<PaymentTotals> totals = statistics.snapshot();
+        assertEquals(CurrencyType.values().length * PaymentType.values().length, totals.size());
+        assertTrue(totals.contains(new PaymentTotals(CurrencyType.EUR, PaymentType.TYPE1, 2, 25000, 2, 35)));
+        assertTrue(totals.contains(new PaymentTotals(CurrencyType.USD, PaymentType.TYPE2, 1, 700, 0, 0)));
+        assertTrue(totals.contains(new PaymentTotals(CurrencyType.USD, PaymentType.TYPE1, 0, 0, 0, 0)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.paymentservice.unit.concurrency;
+
+import com.example.paymentservice.concurrency.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void tryAcquire_BurstUsedUp_RejectsUntilRefilled() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("create", 3, 2, 4, 100, ticker::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        assertEquals(1, limiter.rejectedCount());
+
+        ticker.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void tryAcquire_ClientsHaveSeparateBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("create", 1, 1, 4, 100, ticker::get);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_MoreClientsThanMaximum_EvictsLeastRecentlySeen() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("create", 1, 1, 1, 2, ticker::get);
+
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.3");
+
+        assertEquals(2, limiter.clientCount());
+        assertEquals(1, limiter.evictionCount());
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+}
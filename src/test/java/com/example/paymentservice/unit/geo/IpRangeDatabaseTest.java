@@ -0,0 +1,104 @@
+package com.example.paymentservice.unit.geo;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import com.example.paymentservice.geo.IpAddressParser;
+import com.example.paymentservice.geo.IpRangeDatabaseCompiler;
+import com.example.paymentservice.service.OfflineCountryResolverServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpRangeDatabaseTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parseIpv4_ValidAndInvalidAddresses() {
+        assertEquals(0xC0A80001L, IpAddressParser.parseIpv4("192.168.0.1"));
+        assertEquals(0xFFFFFFFFL, IpAddressParser.parseIpv4("255.255.255.255"));
+        assertEquals(-1, IpAddressParser.parseIpv4("256.1.1.1"));
+        assertEquals(-1, IpAddressParser.parseIpv4("1.2.3"));
+        assertEquals(-1, IpAddressParser.parseIpv4("1.2.3.4.5"));
+        assertEquals(-1, IpAddressParser.parseIpv4("::1"));
+    }
+
+    @Test
+    void parseIpv6_ValidAndInvalidAddresses() {
+        long[] address = new long[2];
+
+        assertTrue(IpAddressParser.parseIpv6("2001:db8::1", address));
+        assertArrayEquals(new long[]{0x20010DB800000000L, 1L}, address);
+        assertTrue(IpAddressParser.parseIpv6("::ffff:10.0.0.1", address));
+        assertArrayEquals(new long[]{0L, 0x0000FFFF0A000001L}, address);
+        assertTrue(IpAddressParser.parseIpv6("fe80::1%eth0", address));
+        assertArrayEquals(new long[]{0xFE80000000000000L, 1L}, address);
+        assertTrue(IpAddressParser.parseIpv6("1:2:3:4:5:6:7:8", address));
+        assertArrayEquals(new long[]{0x0001000200030004L, 0x0005000600070008L}, address);
+
+        assertFalse(IpAddressParser.parseIpv6("1::2::3", address));
+        assertFalse(IpAddressParser.parseIpv6("1:2:3:4:5:6:7", address));
+        assertFalse(IpAddressParser.parseIpv6("12345::", address));
+        assertFalse(IpAddressParser.parseIpv6("unknown", address));
+    }
+
+    @Test
+    void resolve_CompiledDatabase_FindsContainingRange() throws IOException {
+        Path database = compile("""
+                start_ip,end_ip,country
+                10.0.0.0,10.0.0.255,Lithuania
+                1.0.0.0,1.0.0.255,"Korea, Republic of"
+                2001:db8::,2001:db8::ffff,Latvia
+                """);
+        OfflineCountryResolverServiceImpl resolver = new OfflineCountryResolverServiceImpl(database, new CountryTraffic());
+
+        assertEquals("Lithuania", resolver.resolve("10.0.0.7"));
+        assertEquals("Korea, Republic of", resolver.resolve("1.0.0.255"));
+        assertEquals("Lithuania", resolver.resolve("::ffff:10.0.0.1"));
+        assertEquals("Latvia", resolver.resolve("2001:db8::abcd"));
+        assertNull(resolver.resolve("10.0.1.0"));
+        assertNull(resolver.resolve("0.0.0.1"));
+        assertNull(resolver.resolve("2001:db8::1:0"));
+        assertNull(resolver.resolve("not-an-ip"));
+    }
+
+    @Test
+    void reloadIfChanged_FileReplaced_UsesNewRanges() throws IOException {
+        Path database = compile("10.0.0.0,10.0.0.255,Lithuania\n");
+        OfflineCountryResolverServiceImpl resolver = new OfflineCountryResolverServiceImpl(database, new CountryTraffic());
+
+        compile("10.0.0.0,10.0.0.255,Estonia\n");
+        Files.setLastModifiedTime(database, FileTime.from(Instant.now().plusSeconds(60)));
+        resolver.reloadIfChanged();
+
+        assertEquals("Estonia", resolver.resolve("10.0.0.1"));
+    }
+
+    @Test
+    void compile_OverlappingRanges_ThrowException() {
+        assertThrows(IOException.class, () -> compile("""
+                10.0.0.0,10.0.0.255,Lithuania
+                10.0.0.128,10.0.1.255,Latvia
+                """));
+    }
+
+    private Path compile(String csv) throws IOException {
+        Path input = dir.resolve("ranges.csv");
+        Path output = dir.resolve("ranges.bin");
+        Files.writeString(input, csv);
+        IpRangeDatabaseCompiler.compile(input, output);
+        return output;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.paymentservice.unit.http;
+
+import com.example.paymentservice.concurrency.ConcurrencyLimiter;
+import com.example.paymentservice.config.OutboundHttpProperties;
+import com.example.paymentservice.http.CircuitBreaker;
+import com.example.paymentservice.http.ConcurrencyLimitExceededException;
+import com.example.paymentservice.http.ConcurrencyLimitingHttpRequestInterceptor;
+import com.example.paymentservice.http.ResilientHttpRequestInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResilientHttpRequestInterceptorTest {
+
+    private static final String HOST = "example.com";
+
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter("outbound-http", 1, Duration.ZERO);
+
+    private final ResilientHttpRequestInterceptor interceptor = new ResilientHttpRequestInterceptor(
+            new OutboundHttpProperties(null, null, null, null, 0, 0,
+                    new OutboundHttpProperties.Retry(3, Duration.ZERO, Duration.ZERO),
+                    new OutboundHttpProperties.CircuitBreaker(5, Duration.ofMinutes(1)),
+                    Map.of()),
+            new SimpleMeterRegistry(),
+            new ConcurrencyLimitingHttpRequestInterceptor(limiter));
+
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://" + HOST));
+
+    @Test
+    void intercept_LocalConcurrencyLimitReached_NotRetriedAndNotCountedAsHostFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpRequestExecution execution = (req, body) -> {
+            calls.incrementAndGet();
+            throw new ConcurrencyLimitExceededException("outbound-http");
+        };
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ConcurrencyLimitExceededException.class,
+                    () -> interceptor.intercept(request, new byte[0], execution));
+        }
+
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitState(HOST));
+    }
+
+    @Test
+    void intercept_Retried_EveryAttemptHoldsItsOwnPermit() throws Exception {
+        List<Boolean> secondCallerAdmitted = new ArrayList<>();
+        ClientHttpRequestExecution execution = (req, body) -> {
+            boolean admitted = limiter.tryAcquire();
+            if (admitted) {
+                limiter.release();
+            }
+            secondCallerAdmitted.add(admitted);
+            return new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE);
+        };
+
+        try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution)) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals(1, limiter.inUse());
+        }
+
+        assertEquals(List.of(false, false, false), secondCallerAdmitted);
+        assertEquals(0, limiter.inUse());
+    }
+
+    @Test
+    void intercept_RuntimeExceptionFromExecution_CountedAsFailure() {
+        ClientHttpRequestExecution execution = (req, body) -> {
+            throw new ResourceAccessException("nested interceptor failed");
+        };
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ResourceAccessException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.circuitState(HOST));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.paymentservice.unit.model;
+
+import com.example.paymentservice.model.Money;
+import com.example.paymentservice.types.CurrencyType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void toMinorUnits_RoundTripsTwoDecimalAmounts() {
+        assertEquals(12550L, Money.toMinorUnits(new BigDecimal("125.50")));
+        assertEquals(new BigDecimal("125.50"), new Money(12550L, CurrencyType.EUR).toBigDecimal());
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0L));
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("1.001")));
+    }
+
+    @Test
+    void isExactAmount_RequiresTwoDecimalPlacesWithinRange() {
+        assertTrue(Money.isExactAmount(new BigDecimal("100.00")));
+        assertFalse(Money.isExactAmount(new BigDecimal("100.1")));
+        assertFalse(Money.isExactAmount(new BigDecimal("100")));
+        assertFalse(Money.isExactAmount(new BigDecimal("100000000000000000000.00")));
+    }
+
+    @Test
+    void bounds_RoundTowardsTheInsideOfTheRange() {
+        assertEquals(1001L, Money.ceilMinorUnits(new BigDecimal("10.001")));
+        assertEquals(1000L, Money.floorMinorUnits(new BigDecimal("10.009")));
+        assertEquals(1500L, Money.ceilMinorUnits(new BigDecimal("15")));
+        assertEquals(Long.MAX_VALUE, Money.floorMinorUnits(new BigDecimal("1E+30")));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.paymentservice.unit.repository;
+
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.repository.JournalPaymentRepository;
+import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalPaymentRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 10, 30, 15, 123_456_789);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void open_ReplaysJournalWithoutSnapshot() throws IOException {
+        JournalPaymentRepository repo = open(4096);
+        Long first = repo.save(payment(10000L, "key-1")).getId();
+        Long second = repo.save(payment(20000L, null)).getId();
+        assertEquals(1, repo.cancelIfUnchanged(first, 0L, new BigDecimal("0.15"),
+                NOW.toLocalDate().atStartOfDay(), NOW.toLocalDate().plusDays(1).atStartOfDay()));
+        // No close: simulates a crash
+
+        JournalPaymentRepository recovered = open(4096);
+
+        assertEquals(2, recovered.count());
+        Payment canceled = recovered.findById(first).orElseThrow();
+        assertTrue(canceled.getIsCanceled());
+        assertEquals(new BigDecimal("0.15"), canceled.getCancellationFee());
+        assertEquals(1L, canceled.getVersion());
+        assertEquals(NOW, canceled.getCreatedAt());
+        assertEquals(first, recovered.findByIdempotencyKey("key-1").orElseThrow().id());
+        assertEquals(20000L, recovered.findById(second).orElseThrow().getAmount());
+        assertEquals(second + 1, recovered.save(payment(1L, null)).getId());
+    }
+
+    @Test
+    void open_LoadsSnapshotAndReplaysLaterRecordsAcrossSegments() throws IOException {
+        JournalPaymentRepository repo = open(512);
+        for (int i = 0; i < 20; i++) {
+            repo.save(payment(i * 100L, "key-" + i));
+        }
+        repo.snapshot();
+        for (int i = 20; i < 30; i++) {
+            repo.save(payment(i * 100L, "key-" + i));
+        }
+
+        JournalPaymentRepository recovered = open(512);
+
+        assertEquals(30, recovered.count());
+        List<Long> ids = recovered.findActivePaymentsOrderById(null, null, null, Limit.unlimited())
+                .stream().map(key -> key.id()).toList();
+        assertEquals(30, ids.size());
+        assertEquals(30L, recovered.findByIdempotencyKey("key-29").orElseThrow().id());
+    }
+
+    @Test
+    void open_DiscardsTornRecordAtTheEnd() throws IOException {
+        JournalPaymentRepository repo = open(4096);
+        repo.save(payment(10000L, null));
+        repo.save(payment(20000L, null));
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = file.readInt();
+            long secondStart = 8L + firstLength;
+            file.seek(secondStart + 8 + 3);
+            file.writeByte(0x7F);
+        }
+
+        JournalPaymentRepository recovered = open(4096);
+
+        assertEquals(1, recovered.count());
+        assertEquals(2L, recovered.save(payment(30000L, null)).getId());
+    }
+
+    @Test
+    void save_DuplicateIdempotencyKey_Throws() throws IOException {
+        JournalPaymentRepository repo = open(4096);
+        repo.save(payment(10000L, "key-1"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> repo.save(payment(20000L, "key-1")));
+        assertEquals(1, repo.count());
+    }
+
+    @Test
+    void saveAll_DuplicateIdempotencyKeyInBatch_StoresNothing() throws IOException {
+        JournalPaymentRepository repo = open(4096);
+        repo.save(payment(10000L, "key-1"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> repo.saveAll(List.of(
+                payment(20000L, "key-2"), payment(30000L, "key-1"), payment(40000L, "key-3"))));
+
+        assertEquals(1, repo.count());
+        assertTrue(repo.findByIdempotencyKey("key-2").isEmpty());
+    }
+
+    @Test
+    void save_InTransaction_AppliedOnlyOnCommit() throws IOException {
+        JournalPaymentRepository repo = open(4096);
+
+        inTransaction(false, () -> repo.save(payment(10000L, "key-1")));
+        assertEquals(0, repo.count());
+
+        inTransaction(true, () -> {
+            repo.save(payment(20000L, "key-1"));
+            assertEquals(0, repo.count());
+            assertThrows(DataIntegrityViolationException.class, () -> repo.save(payment(30000L, "key-1")));
+        });
+        assertEquals(1, repo.count());
+        assertEquals(1, open(4096).count());
+    }
+
+    private static void inTransaction(boolean commit, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private JournalPaymentRepository open(int segmentSize) throws IOException {
+        JournalPaymentRepository repo = new JournalPaymentRepository();
+        ReflectionTestUtils.setField(repo, "directory", dir);
+        ReflectionTestUtils.setField(repo, "segmentSize", DataSize.ofBytes(segmentSize));
+        ReflectionTestUtils.setField(repo, "forceWrites", false);
+        repo.open();
+        return repo;
+    }
+
+    private static Payment payment(long amount, String idempotencyKey) {
+        return Payment.builder()
+                .createdAt(NOW)
+                .amount(amount)
+                .currency(CurrencyType.EUR)
+                .debtorIban("LT123456789012345678")
+                .creditorIban("LT876543210987654321")
+                .type(PaymentType.TYPE1)
+                .details("Rent")
+                .isCanceled(Boolean.FALSE)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.paymentservice.unit.repository;
+
+import com.example.paymentservice.entity.ArchivedPayment;
+import com.example.paymentservice.entity.Payment;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.repository.ArchivedPaymentRepository;
+import com.example.paymentservice.repository.JpaPaymentRepository;
+import com.example.paymentservice.repository.PartitionedPaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The archiver moves payment 2 to the archive after today's partition has been read and before the
+ * archive is, so both queries of one listing return it.
+ */
+class PartitionedPaymentRepositoryTest {
+
+    private static final PaymentKey FIRST = new PaymentKey(1L, 3000L);
+    private static final PaymentKey MOVED = new PaymentKey(2L, 1000L);
+    private static final PaymentKey LAST = new PaymentKey(3L, 2000L);
+
+    private final JpaPaymentRepository today = mock(JpaPaymentRepository.class);
+    private final ArchivedPaymentRepository archive = mock(ArchivedPaymentRepository.class);
+    private final PartitionedPaymentRepository repo =
+            new PartitionedPaymentRepository(today, archive, mock(EntityManager.class));
+
+    @Test
+    void findActivePayments_RowMovedBetweenPartitionQueries_ReturnedOnce() {
+        when(today.findActivePaymentKeysOrderById(anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(List.of(MOVED, LAST));
+        when(archive.findActivePaymentKeysOrderById(anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(List.of(FIRST, MOVED));
+        when(today.findActivePaymentKeysOrderByAmount(anyLong(), anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(List.of(MOVED, LAST));
+        when(archive.findActivePaymentKeysOrderByAmount(anyLong(), anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(List.of(MOVED, FIRST));
+
+        assertEquals(List.of(FIRST, MOVED, LAST),
+                repo.findActivePaymentsOrderById(null, null, null, Limit.of(10)));
+        assertEquals(List.of(FIRST, MOVED),
+                repo.findActivePaymentsOrderById(null, null, null, Limit.of(2)));
+        assertEquals(List.of(MOVED, LAST, FIRST),
+                repo.findActivePaymentsOrderByAmount(null, null, null, null, Limit.of(10)));
+    }
+
+    @Test
+    void streamActivePayments_RowMovedBetweenPartitionQueries_StreamedOnce() {
+        when(today.streamActivePayments(anyLong(), anyLong()))
+                .thenReturn(Stream.of(payment(MOVED.id()), payment(LAST.id())));
+        when(archive.streamActivePayments(anyLong(), anyLong()))
+                .thenReturn(Stream.of(archived(FIRST.id()), archived(MOVED.id())));
+
+        try (Stream<Payment> payments = repo.streamActivePayments(null, null)) {
+            assertEquals(List.of(1L, 2L, 3L), payments.map(Payment::getId).toList());
+        }
+    }
+
+    private static Payment payment(Long id) {
+        return Payment.builder().id(id).build();
+    }
+
+    private static ArchivedPayment archived(Long id) {
+        return ArchivedPayment.builder().id(id).build();
+    }
+}
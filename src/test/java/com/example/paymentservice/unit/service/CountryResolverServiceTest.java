@@ -0,0 +1,64 @@
+package com.example.paymentservice.unit.service;
+
+import com.example.paymentservice.cache.CountryTraffic;
+import com.example.paymentservice.cache.LruTtlCache;
+import com.example.paymentservice.service.CountryResolverServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CountryResolverServiceTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    private final CountryTraffic countryTraffic = new CountryTraffic();
+    private final LruTtlCache<String, Optional<String>> countryCache = new LruTtlCache<>(100);
+
+    private CountryResolverServiceImpl resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CountryResolverServiceImpl(restTemplate, countryCache, new SimpleMeterRegistry(),
+                countryTraffic, executor);
+        ReflectionTestUtils.setField(resolver, "ipapiUrl", "https://ipapi.test");
+        ReflectionTestUtils.setField(resolver, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(resolver, "negativeTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(resolver, "maxPendingLookups", 1);
+    }
+
+    @Test
+    void resolveAndCount_ConcurrentMisses_OneLookupPerIpAndBounded() {
+        when(restTemplate.getForEntity(anyString(), eq(String.class))).thenReturn(ResponseEntity.ok("Latvia"));
+
+        resolver.resolveAndCount("10.0.0.1");
+        resolver.resolveAndCount("10.0.0.1");
+        resolver.resolveAndCount("10.0.0.2");
+
+        ArgumentCaptor<Runnable> lookups = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(1)).execute(lookups.capture());
+        assertEquals(Map.of("Unknown", 1L), countryTraffic.snapshot());
+
+        lookups.getValue().run();
+        resolver.resolveAndCount("10.0.0.1");
+
+        assertEquals(Map.of("Latvia", 3L, "Unknown", 1L), countryTraffic.snapshot());
+        verify(restTemplate, times(1)).getForEntity(anyString(), eq(String.class));
+    }
+}
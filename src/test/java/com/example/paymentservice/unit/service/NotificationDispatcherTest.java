@@ -0,0 +1,131 @@
+package com.example.paymentservice.unit.service;
+
+import com.example.paymentservice.entity.NotificationLog;
+import com.example.paymentservice.entity.NotificationOutbox;
+import com.example.paymentservice.repository.NotificationOutboxRepository;
+import com.example.paymentservice.service.NotificationDispatcher;
+import com.example.paymentservice.service.NotificationLogWriter;
+import com.example.paymentservice.types.OutboxStatus;
+import com.example.paymentservice.types.PaymentType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 2, 10, 0);
+
+    private RestTemplate restTemplate;
+    private NotificationOutboxRepository outboxRepo;
+    private NotificationLogWriter logWriter;
+    private NotificationDispatcher dispatcher;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setup() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-02T10:00:00Z"), ZoneId.of("UTC"));
+        restTemplate = mock(RestTemplate.class);
+        outboxRepo = mock(NotificationOutboxRepository.class);
+        logWriter = mock(NotificationLogWriter.class);
+        dispatcher = new NotificationDispatcher(clock, restTemplate, outboxRepo, logWriter,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(dispatcher, "parallelism", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(dispatcher, "claimTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(dispatcher, "start");
+    }
+
+    @AfterEach
+    void cleanup() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "stop");
+    }
+
+    @Test
+    void dispatchPending_MixedResults_MarksEntriesAndLogsAttempts() {
+        NotificationOutbox delivered = entry(1L, "http://notify/ok", 0);
+        NotificationOutbox retried = entry(2L, "http://notify/down", 1);
+        NotificationOutbox exhausted = entry(3L, "http://notify/down", 2);
+        when(outboxRepo.findDueForUpdate(OutboxStatus.PENDING, NOW, Limit.of(10)))
+                .thenReturn(List.of(delivered, retried, exhausted));
+        when(restTemplate.getForEntity(eq("http://notify/down"), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(OutboxStatus.SENT, delivered.getStatus());
+        assertEquals(1, delivered.getAttempts());
+        assertEquals(OutboxStatus.PENDING, retried.getStatus());
+        assertEquals(NOW.plusSeconds(10), retried.getNextAttemptAt());
+        assertEquals(OutboxStatus.FAILED, exhausted.getStatus());
+        assertEquals(3, exhausted.getAttempts());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(logWriter).write(logs.capture());
+        assertEquals(3, logs.getValue().size());
+        assertTrue(logs.getValue().get(0).isSuccess());
+        assertFalse(logs.getValue().get(1).isSuccess());
+        assertEquals(2, logs.getValue().get(1).getAttempt());
+        verify(outboxRepo).saveAll(any());
+        assertEquals(1, meterRegistry.get("notification.delivery")
+                .tags("type", "TYPE1", "outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("notification.delivery")
+                .tags("type", "TYPE1", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void dispatchPending_BacklogLargerThanOnePoll_StopsAfterMaxBatches() {
+        when(outboxRepo.findDueForUpdate(OutboxStatus.PENDING, NOW, Limit.of(10)))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, 10)
+                        .mapToObj(id -> entry(id, "http://notify/ok", 0))
+                        .toList());
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepo, times(5)).findDueForUpdate(OutboxStatus.PENDING, NOW, Limit.of(10));
+        verify(logWriter, times(5)).write(any());
+    }
+
+    private NotificationOutbox entry(Long paymentId, String url, int attempts) {
+        return NotificationOutbox.builder()
+                .id(paymentId)
+                .paymentId(paymentId)
+                .paymentType(PaymentType.TYPE1)
+                .url(url)
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(NOW)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.paymentservice.unit.service;
+
+import com.example.paymentservice.entity.NotificationLog;
+import com.example.paymentservice.repository.NotificationLogRepository;
+import com.example.paymentservice.service.NotificationLogWriter;
+import com.example.paymentservice.types.BufferOverflowPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationLogWriterTest {
+
+    private final List<Long> savedPaymentIds = new ArrayList<>();
+
+    private NotificationLogRepository logRepo;
+    private NotificationLogWriter writer;
+
+    @BeforeEach
+    void setup() {
+        logRepo = mock(NotificationLogRepository.class);
+        when(logRepo.saveAll(anyList())).thenAnswer(invocation -> {
+            List<NotificationLog> batch = invocation.getArgument(0);
+            synchronized (savedPaymentIds) {
+                batch.forEach(log -> savedPaymentIds.add(log.getPaymentId()));
+            }
+            return batch;
+        });
+        writer = new NotificationLogWriter(logRepo, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(writer, "bufferCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        ReflectionTestUtils.setField(writer, "linger", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(writer, "overflowPolicy", BufferOverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(writer, "offerTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.invokeMethod(writer, "start");
+    }
+
+    @Test
+    void write_FullBatchBuffered_FlushedWithoutWaitingForLinger() {
+        writer.write(logs(3));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationLog>> batch = ArgumentCaptor.forClass(List.class);
+        verify(logRepo, timeout(5000)).saveAll(batch.capture());
+        assertEquals(List.of(0L, 1L, 2L), savedPaymentIds);
+
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+    }
+
+    @Test
+    void stop_PartialBatchBuffered_FlushesEverything() {
+        writer.write(logs(5));
+
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+
+        verify(logRepo, atLeastOnce()).saveAll(anyList());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), savedPaymentIds.stream().sorted().toList());
+    }
+
+    private static List<NotificationLog> logs(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> NotificationLog.builder().paymentId((long) i).url("http://notify").success(true).build())
+                .toList();
+    }
+}
@@ -1,36 +1,56 @@
 package com.example.paymentservice.unit.service;
 
+import com.example.paymentservice.cache.ActivePaymentIndex;
+import com.example.paymentservice.cache.LruTtlCache;
+import com.example.paymentservice.cache.PaymentStatistics;
 import com.example.paymentservice.entity.Payment;
-import com.example.paymentservice.exception.BusinessValidationException;
+import com.example.paymentservice.model.PaymentKey;
+import com.example.paymentservice.model.PaymentPage;
+import com.example.paymentservice.model.PaymentSummary;
 import com.example.paymentservice.repository.PaymentRepository;
 import com.example.paymentservice.service.NotificationServiceImpl;
 import com.example.paymentservice.service.PaymentServiceImpl;
 import com.example.paymentservice.types.CurrencyType;
+import com.example.paymentservice.types.PaymentSortType;
 import com.example.paymentservice.types.PaymentType;
 import com.example.paymentservice.validation.PaymentValidator;
 import com.example.paymentservice.validation.PaymentValidatorImpl;
+import com.example.paymentservice.validation.Validated;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,15 +67,22 @@ class PaymentServiceTest {
         paymentRepository = mock(PaymentRepository.class);
         notificationService = mock(NotificationServiceImpl.class);
         clock = mock(Clock.class);
-        paymentValidator = new PaymentValidatorImpl(clock); // assuming no dependencies
-        paymentService = new PaymentServiceImpl(clock, paymentRepository, notificationService, paymentValidator);
+        paymentValidator = new PaymentValidatorImpl(clock, new SimpleMeterRegistry());
+        paymentService = new PaymentServiceImpl(
+                clock, paymentRepository, notificationService, paymentValidator, mock(EntityManager.class),
+                new LruTtlCache<>(100, (current, candidate) -> candidate.isNewerOrSameAs(current)),
+                new ActivePaymentIndex(false), new PaymentStatistics());
+        ReflectionTestUtils.setField(paymentService, "cacheTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(paymentService, "canceledCacheTtl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(paymentService, "cancelMaxAttempts", 3);
+        ReflectionTestUtils.setField(paymentService, "cancelRetryBackoff", Duration.ofMillis(1));
     }
 
     @Test
     void testCreatePayment_success() {
         Payment paymentToSave = Payment.builder()
                 .type(PaymentType.TYPE1)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
@@ -71,7 +98,7 @@ class PaymentServiceTest {
             return p;
         });
 
-        Long createdId = paymentService.createPayment(paymentToSave);
+        Long createdId = paymentService.createPayment(paymentToSave).value();
 
         assertNotNull(createdId);
         verify(paymentRepository).save(any(Payment.class));
@@ -79,130 +106,149 @@ class PaymentServiceTest {
     }
 
     @Test
-    void testCreatePayment_invalidCurrencyForType1_throwsException() {
+    void testCreatePayment_invalidCurrencyForType1_Rejected() {
         Payment paymentToSave = Payment.builder()
                 .type(PaymentType.TYPE1)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.USD)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .details("Payment details")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Payment of TYPE1 must be EUR", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Payment of TYPE1 must be EUR"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_DetailsMissingForType1_throwsException() {
+    void testCreatePayment_DetailsMissingForType1_Rejected() {
         Payment paymentToSave = Payment.builder()
                 .type(PaymentType.TYPE1)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Details are required for TYPE1 payment", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Details are required for TYPE1 payment"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_CreditorBankBicProvidedForType1_throwsException() {
+    void testCreatePayment_SeveralRulesBroken_ReportsAll() {
         Payment paymentToSave = Payment.builder()
                 .type(PaymentType.TYPE1)
-                .amount(new BigDecimal("100.00"))
-                .currency(CurrencyType.EUR)
+                .amount(10000L)
+                .currency(CurrencyType.USD)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
-                .details("Payment details")
-                .creditorBankBic("NORZNOZZ77")
+                .creditorBankBic("BANKDEFF")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Creditor Bank BIC is not allowed for TYPE1 payments", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertEquals(List.of(
+                "Payment of TYPE1 must be EUR",
+                "Details are required for TYPE1 payment",
+                "Creditor Bank BIC is not allowed for TYPE1 payments"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_CreditorBankBicProvidedForType2_throwsException() {
+    void testCreatePayment_CreditorBankBicProvidedForType1_Rejected() {
         Payment paymentToSave = Payment.builder()
-                .type(PaymentType.TYPE2)
-                .amount(new BigDecimal("100.00"))
-                .currency(CurrencyType.USD)
+                .type(PaymentType.TYPE1)
+                .amount(10000L)
+                .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .details("Payment details")
                 .creditorBankBic("NORZNOZZ77")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Creditor Bank BIC is not allowed for TYPE2 payments", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Creditor Bank BIC is not allowed for TYPE1 payments"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_DetailsProvidedForType1_throwsException() {
+    void testCreatePayment_CreditorBankBicProvidedForType2_Rejected() {
         Payment paymentToSave = Payment.builder()
-                .type(PaymentType.TYPE3)
-                .amount(new BigDecimal("100.00"))
-                .currency(CurrencyType.EUR)
+                .type(PaymentType.TYPE2)
+                .amount(10000L)
+                .currency(CurrencyType.USD)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .details("Payment details")
                 .creditorBankBic("NORZNOZZ77")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Details are not allowed for TYPE3 payments", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Creditor Bank BIC is not allowed for TYPE2 payments"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_invalidCurrencyForType2_throwsException() {
+    void testCreatePayment_DetailsProvidedForType1_Rejected() {
         Payment paymentToSave = Payment.builder()
-                .type(PaymentType.TYPE2)
-                .amount(new BigDecimal("100.00"))
+                .type(PaymentType.TYPE3)
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
+                .details("Payment details")
+                .creditorBankBic("NORZNOZZ77")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Payment of TYPE2 must be USD", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Details are not allowed for TYPE3 payments"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_CreditorBankBICMissingForType3_throwsException() {
+    void testCreatePayment_invalidCurrencyForType2_Rejected() {
         Payment paymentToSave = Payment.builder()
-                .type(PaymentType.TYPE3)
-                .amount(new BigDecimal("100.00"))
+                .type(PaymentType.TYPE2)
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Creditor bank BIC is required for TYPE3 payment", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Payment of TYPE2 must be USD"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
-    void testCreatePayment_IncorrectAmountScale_throwsException() {
+    void testCreatePayment_CreditorBankBICMissingForType3_Rejected() {
         Payment paymentToSave = Payment.builder()
                 .type(PaymentType.TYPE3)
-                .amount(new BigDecimal("100.1"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE1234567890")
                 .creditorIban("DE0987654321")
                 .build();
 
-        RuntimeException ex = assertThrows(BusinessValidationException.class,
-                () -> paymentService.createPayment(paymentToSave));
-        assertEquals("Monetary amount must have exactly 2 decimal places", ex.getMessage());
+        Validated<Long> result = paymentService.createPayment(paymentToSave);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Creditor bank BIC is required for TYPE3 payment"), result.validation().getMessages());
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
@@ -210,28 +256,30 @@ class PaymentServiceTest {
         Payment payment = Payment.builder()
                 .id(1L)
                 .type(PaymentType.TYPE1)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE123")
                 .creditorIban("DE321")
                 .details("Payment details")
                 .createdAt(LocalDateTime.of(2025, 1, 2, 8, 10))
                 .isCanceled(false)
+                .version(0L)
                 .build();
         Instant fixedInstant = Instant.parse("2025-01-02T10:15:30.00Z");
 
         when(clock.instant()).thenReturn(fixedInstant);
         when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> i.getArgument(0));
+        when(paymentRepository.cancelIfUnchanged(any(), any(), any(), any(), any())).thenReturn(1);
 
-        Payment result = paymentService.cancelPayment(1L);
+        Payment result = paymentService.cancelPayment(1L).value();
 
         assertNotNull(result);
         assertEquals(new BigDecimal("0.10"), result.getCancellationFee()); // 2h * 0.05
         assertTrue(payment.getIsCanceled());
 
-        verify(paymentRepository).save(payment);
+        verify(paymentRepository).cancelIfUnchanged(1L, 0L, new BigDecimal("0.10"),
+                LocalDateTime.of(2025, 1, 2, 0, 0), LocalDateTime.of(2025, 1, 3, 0, 0));
     }
 
     @Test
@@ -239,28 +287,30 @@ class PaymentServiceTest {
         Payment payment = Payment.builder()
                 .id(1L)
                 .type(PaymentType.TYPE2)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE123")
                 .creditorIban("DE321")
                 .details("Payment details")
                 .createdAt(LocalDateTime.of(2025, 1, 2, 7, 10))
                 .isCanceled(false)
+                .version(0L)
                 .build();
         Instant fixedInstant = Instant.parse("2025-01-02T10:15:30.00Z");
 
         when(clock.instant()).thenReturn(fixedInstant);
         when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> i.getArgument(0));
+        when(paymentRepository.cancelIfUnchanged(any(), any(), any(), any(), any())).thenReturn(1);
 
-        Payment result = paymentService.cancelPayment(1L);
+        Payment result = paymentService.cancelPayment(1L).value();
 
         assertNotNull(result);
         assertEquals(new BigDecimal("0.30"), result.getCancellationFee()); // 3h * 0.10
         assertTrue(payment.getIsCanceled());
 
-        verify(paymentRepository).save(payment);
+        verify(paymentRepository).cancelIfUnchanged(1L, 0L, new BigDecimal("0.30"),
+                LocalDateTime.of(2025, 1, 2, 0, 0), LocalDateTime.of(2025, 1, 3, 0, 0));
     }
 
     @Test
@@ -268,28 +318,52 @@ class PaymentServiceTest {
         Payment payment = Payment.builder()
                 .id(1L)
                 .type(PaymentType.TYPE3)
-                .amount(new BigDecimal("100.00"))
+                .amount(10000L)
                 .currency(CurrencyType.EUR)
                 .debtorIban("DE123")
                 .creditorIban("DE321")
                 .details("Payment details")
                 .createdAt(LocalDateTime.of(2025, 1, 2, 5, 40))
                 .isCanceled(false)
+                .version(0L)
                 .build();
         Instant fixedInstant = Instant.parse("2025-01-02T10:15:30.00Z");
 
         when(clock.instant()).thenReturn(fixedInstant);
         when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> i.getArgument(0));
+        when(paymentRepository.cancelIfUnchanged(any(), any(), any(), any(), any())).thenReturn(1);
 
-        Payment result = paymentService.cancelPayment(1L);
+        Payment result = paymentService.cancelPayment(1L).value();
 
         assertNotNull(result);
         assertEquals(new BigDecimal("0.60"), result.getCancellationFee()); // 4h * 0.15
         assertTrue(payment.getIsCanceled());
     }
 
+    @Test
+    void calculateCancellationFee_SameAsDecimalFormula() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 3, 23, 59, 59);
+        when(clock.instant()).thenReturn(now.toInstant(ZoneOffset.UTC));
+        when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
+
+        for (PaymentType type : PaymentType.values()) {
+            BigDecimal coefficient = switch (type) {
+                case TYPE1 -> BigDecimal.valueOf(0.05);
+                case TYPE2 -> BigDecimal.valueOf(0.10);
+                case TYPE3 -> BigDecimal.valueOf(0.15);
+            };
+            for (int seconds = -3600; seconds < 72 * 3600; seconds += 397) {
+                LocalDateTime createdAt = now.minusSeconds(seconds);
+                Payment payment = Payment.builder().type(type).currency(CurrencyType.EUR).createdAt(createdAt).build();
+                BigDecimal expected = BigDecimal.valueOf(Duration.between(createdAt, now).toHours())
+                        .multiply(coefficient).setScale(2, RoundingMode.HALF_UP);
+
+                assertEquals(expected, paymentService.calculateCancellationFee(payment));
+            }
+        }
+    }
+
     @Test
     void cancelPayment_PaymentNotFound_ThrowException() {
         when(paymentRepository.findById(1L)).thenReturn(Optional.empty());
@@ -301,7 +375,7 @@ class PaymentServiceTest {
     }
 
     @Test
-    void cancelPayment_AlreadyCanceled_ThrowException() {
+    void cancelPayment_AlreadyCanceled_Rejected() {
         Payment payment = Payment.builder()
                 .id(1L)
                 .isCanceled(true)
@@ -310,13 +384,14 @@ class PaymentServiceTest {
 
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
 
-        BusinessValidationException ex = assertThrows(
-                BusinessValidationException.class, () -> paymentService.cancelPayment(1L));
-        assertEquals("Payment is already canceled", ex.getMessage());
+        Validated<Payment> result = paymentService.cancelPayment(1L);
+
+        assertEquals(List.of("Payment is already canceled"), result.validation().getMessages());
+        verify(paymentRepository, never()).cancelIfUnchanged(any(), any(), any(), any(), any());
     }
 
     @Test
-    void cancelPayment_DifferentDay_ThrowException() {
+    void cancelPayment_DifferentDay_Rejected() {
         Payment payment = Payment.builder()
                 .id(1L)
                 .isCanceled(false)
@@ -328,42 +403,154 @@ class PaymentServiceTest {
         when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
 
-        BusinessValidationException ex = assertThrows(
-                BusinessValidationException.class, () -> paymentService.cancelPayment(1L));
-        assertEquals("Payment can only be cancel on the same day", ex.getMessage());
+        Validated<Payment> result = paymentService.cancelPayment(1L);
+
+        assertEquals(List.of("Payment can only be cancel on the same day"), result.validation().getMessages());
+        verify(paymentRepository, never()).cancelIfUnchanged(any(), any(), any(), any(), any());
     }
 
     @Test
-    void getFilteredPayments_WithValueMinAndValueMaxValues_Success() {
+    void cancelPayment_ConcurrentlyModified_RetriedThenConflict() {
         Payment payment = Payment.builder()
                 .id(1L)
+                .type(PaymentType.TYPE1)
+                .createdAt(LocalDateTime.of(2025, 1, 2, 8, 10))
                 .isCanceled(false)
-                .createdAt(LocalDateTime.of(2025, 1, 1, 23, 59))
+                .version(0L)
                 .build();
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-02T10:15:30.00Z"));
+        when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.cancelIfUnchanged(any(), any(), any(), any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Payment.class, 1L))
+                .thenReturn(0);
 
-        when(paymentRepository.findActivePaymentsWithOptionalMinAmount(BigDecimal.valueOf(10), BigDecimal.valueOf(20)))
-                .thenReturn(List.of(payment));
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class, () -> paymentService.cancelPayment(1L));
 
-        List<Payment> result = paymentService.getFilteredPayments(BigDecimal.valueOf(10), BigDecimal.valueOf(20));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(paymentRepository, times(3)).findById(1L);
+    }
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+    @Test
+    void getPaymentSummary_RepeatedLookup_LoadedOnce() {
+        Payment payment = Payment.builder().id(1L).isCanceled(false).version(0L).build();
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+
+        paymentService.getPaymentSummary(1L);
+        PaymentSummary summary = paymentService.getPaymentSummary(1L);
+
+        assertEquals(1L, summary.id());
+        verify(paymentRepository, times(1)).findById(1L);
     }
 
     @Test
-    void getFilteredPayments_WithQueryNulls_Success() {
+    void getPaymentSummary_AfterCancel_ReturnsFeeWithoutReload() {
         Payment payment = Payment.builder()
                 .id(1L)
+                .type(PaymentType.TYPE1)
+                .amount(10000L)
+                .currency(CurrencyType.EUR)
+                .createdAt(LocalDateTime.of(2025, 1, 2, 8, 10))
                 .isCanceled(false)
-                .createdAt(LocalDateTime.of(2025, 1, 1, 23, 59))
+                .version(0L)
                 .build();
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-02T10:15:30.00Z"));
+        when(clock.getZone()).thenReturn(ZoneId.of("UTC"));
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.cancelIfUnchanged(any(), any(), any(), any(), any())).thenReturn(1);
+        paymentService.getPaymentSummary(1L);
+
+        paymentService.cancelPayment(1L);
+        PaymentSummary summary = paymentService.getPaymentSummary(1L);
+
+        assertTrue(summary.canceled());
+        assertEquals(new BigDecimal("0.10"), summary.cancellationFee());
+        verify(paymentRepository, times(2)).findById(1L);
+    }
 
-        when(paymentRepository.findActivePaymentsWithOptionalMinAmount(null, null))
+    @Test
+    void getFilteredPayments_WithValueMinAndValueMaxValues_Success() {
+        PaymentKey payment = new PaymentKey(1L, 1500L);
+
+        when(paymentRepository.findActivePaymentsOrderById(
+                1000L, 2000L, null, Limit.of(101)))
                 .thenReturn(List.of(payment));
 
-        List<Payment> result = paymentService.getFilteredPayments(null, null);
+        PaymentPage result = paymentService.getFilteredPayments(
+                BigDecimal.valueOf(10), BigDecimal.valueOf(20), PaymentSortType.ID, null, 100).value();
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.payments().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getFilteredPayments_WithQueryNulls_Success() {
+        PaymentKey payment = new PaymentKey(1L, 1500L);
+
+        when(paymentRepository.findActivePaymentsOrderById(null, null, null, Limit.of(101)))
+                .thenReturn(List.of(payment));
+
+        PaymentPage result = paymentService.getFilteredPayments(null, null, PaymentSortType.ID, null, 100).value();
+
+        assertNotNull(result);
+        assertEquals(1, result.payments().size());
+    }
+
+    @Test
+    void getFilteredPayments_MoreRowsThanLimit_ReturnsNextCursor() {
+        PaymentKey first = new PaymentKey(1L, 1000L);
+        PaymentKey second = new PaymentKey(2L, 2000L);
+
+        when(paymentRepository.findActivePaymentsOrderByAmount(null, null, null, null, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(paymentRepository.findActivePaymentsOrderByAmount(null, null, 1000L, 1L, Limit.of(2)))
+                .thenReturn(List.of(second));
+
+        PaymentPage firstPage = paymentService.getFilteredPayments(null, null, PaymentSortType.AMOUNT, null, 1).value();
+        PaymentPage secondPage = paymentService.getFilteredPayments(
+                null, null, PaymentSortType.AMOUNT, firstPage.nextCursor(), 1).value();
+
+        assertEquals(List.of(first), firstPage.payments());
+        assertNotNull(firstPage.nextCursor());
+        assertEquals(List.of(second), secondPage.payments());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void getFilteredPayments_CursorForDifferentSort_Rejected() {
+        PaymentKey first = new PaymentKey(1L, 1000L);
+        PaymentKey second = new PaymentKey(2L, 2000L);
+
+        when(paymentRepository.findActivePaymentsOrderById(null, null, null, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        String cursor = paymentService.getFilteredPayments(null, null, PaymentSortType.ID, null, 1).value().nextCursor();
+
+        Validated<PaymentPage> result =
+                paymentService.getFilteredPayments(null, null, PaymentSortType.AMOUNT, cursor, 1);
+
+        assertEquals(List.of("Cursor does not match the requested sort order"), result.validation().getMessages());
+    }
+
+    @Test
+    void getFilteredPayments_IndexReady_ServedWithoutDatabase() {
+        ActivePaymentIndex index = new ActivePaymentIndex(true);
+        index.add(1L, 3000L);
+        index.add(2L, 1000L);
+        index.add(3L, 2000L);
+        index.markReady();
+        ReflectionTestUtils.setField(paymentService, "activePaymentIndex", index);
+
+        PaymentPage firstPage = paymentService.getFilteredPayments(
+                new BigDecimal("15"), null, PaymentSortType.AMOUNT, null, 1).value();
+        PaymentPage secondPage = paymentService.getFilteredPayments(
+                new BigDecimal("15"), null, PaymentSortType.AMOUNT, firstPage.nextCursor(), 1).value();
+
+        assertEquals(List.of(new PaymentKey(3L, 2000L)), firstPage.payments());
+        assertEquals(List.of(new PaymentKey(1L, 3000L)), secondPage.payments());
+        assertNull(secondPage.nextCursor());
+        verifyNoInteractions(paymentRepository);
     }
 }